@@ -0,0 +1,45 @@
+package com.niyamr.pdfchecker.config;
+
+import com.niyamr.pdfchecker.service.BatchLLMProvider;
+import com.niyamr.pdfchecker.service.impl.AnthropicBatchProvider;
+import com.niyamr.pdfchecker.service.impl.OpenAIBatchProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Builds the batch backend used by offline audits from audit.*
+ */
+@Slf4j
+@Configuration
+public class AuditConfig {
+
+    @Value("${audit.provider:openai}")
+    private String provider;
+
+    @Value("${audit.api-url:https://api.groq.com/openai/v1}")
+    private String apiUrl;
+
+    @Value("${audit.api-key:${llm.api-key:}}")
+    private String apiKey;
+
+    @Value("${audit.model:}")
+    private String model;
+
+    @Value("${audit.completion-window:24h}")
+    private String completionWindow;
+
+    @Value("${llm.prompt-cache.enabled:true}")
+    private boolean promptCacheEnabled;
+
+    @Bean(name = "batchLLMProvider")
+    public BatchLLMProvider batchLLMProvider(@Qualifier("llmRestTemplate") RestTemplate restTemplate) {
+        log.info("Configured batch backend {} at {}", provider, apiUrl);
+        return "anthropic".equalsIgnoreCase(provider)
+                ? new AnthropicBatchProvider(provider, apiUrl, apiKey, model, promptCacheEnabled, restTemplate)
+                : new OpenAIBatchProvider(provider, apiUrl, apiKey, model, completionWindow, restTemplate);
+    }
+}
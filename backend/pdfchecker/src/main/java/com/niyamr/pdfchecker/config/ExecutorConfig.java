@@ -0,0 +1,149 @@
+package com.niyamr.pdfchecker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread pools used by the check pipeline
+ */
+@Configuration
+@EnableScheduling
+public class ExecutorConfig {
+
+    @Value("${rule-evaluation.max-in-flight:32}")
+    private int maxInFlight;
+
+    @Value("${pdf.parallel.threads:0}")
+    private int extractionThreads;
+
+    @Value("${check-jobs.workers:4}")
+    private int jobWorkers;
+
+    @Value("${check-jobs.queue-capacity:100}")
+    private int jobQueueCapacity;
+
+    @Value("${bulk-check.max-concurrent:2}")
+    private int bulkCoordinators;
+
+    @Value("${bulk-check.queue-capacity:10}")
+    private int bulkQueueCapacity;
+
+    @Value("${bulk-check.extraction-concurrency:2}")
+    private int bulkExtractionThreads;
+
+    @Value("${bulk-check.evaluation-concurrency:2}")
+    private int bulkEvaluationThreads;
+
+    /**
+     * Shared pool for LLM rule checks. The pool size is the global cap on
+     * in-flight rule checks across all requests; extra tasks wait in the queue.
+     */
+    @Bean(name = "ruleEvaluationExecutor", destroyMethod = "shutdown")
+    public ExecutorService ruleEvaluationExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maxInFlight, maxInFlight,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("rule-eval-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Pool for page-range text extraction, one thread per core by default
+     */
+    @Bean(name = "pdfExtractionExecutor", destroyMethod = "shutdown")
+    public ExecutorService pdfExtractionExecutor() {
+        int threads = extractionThreads > 0 ? extractionThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                threads, threads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("pdf-extract-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Threads for hedged LLM calls, enough for a primary and a hedge per
+     * in-flight rule check. When exhausted the caller runs the call itself.
+     */
+    @Bean(name = "llmHedgeExecutor", destroyMethod = "shutdown")
+    public ExecutorService llmHedgeExecutor() {
+        return new ThreadPoolExecutor(
+                0, maxInFlight * 2,
+                60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("llm-hedge-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Workers for asynchronous check jobs. The queue is bounded so bursts are
+     * rejected instead of piling up without limit.
+     */
+    @Bean(name = "checkJobExecutor", destroyMethod = "shutdown")
+    public ExecutorService checkJobExecutor() {
+        return new ThreadPoolExecutor(
+                jobWorkers, jobWorkers,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(jobQueueCapacity),
+                new CustomizableThreadFactory("check-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Coordinators for bulk checks, one per running bulk request. Kept apart
+     * from the check job workers because a bulk check can hold its thread
+     * for as long as its stream stays open.
+     */
+    @Bean(name = "bulkCoordinatorExecutor", destroyMethod = "shutdown")
+    public ExecutorService bulkCoordinatorExecutor() {
+        return new ThreadPoolExecutor(
+                bulkCoordinators, bulkCoordinators,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(bulkQueueCapacity),
+                new CustomizableThreadFactory("bulk-check-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Pool for the extraction stage of bulk checks. Each task is one
+     * document; its page ranges still go through the PDF extraction pool.
+     */
+    @Bean(name = "bulkExtractionExecutor", destroyMethod = "shutdown")
+    public ExecutorService bulkExtractionExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                bulkExtractionThreads, bulkExtractionThreads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("bulk-extract-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Pool for the evaluation stage of bulk checks. Each task is one
+     * document; its rule checks still go through the rule evaluation pool.
+     */
+    @Bean(name = "bulkEvaluationExecutor", destroyMethod = "shutdown")
+    public ExecutorService bulkEvaluationExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                bulkEvaluationThreads, bulkEvaluationThreads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("bulk-eval-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,73 @@
+package com.niyamr.pdfchecker.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Pooled keep-alive HTTP client for LLM provider calls, so rule checks
+ * reuse connections instead of paying a TCP/TLS handshake each time
+ */
+@Configuration
+public class LlmHttpClientConfig {
+
+    @Value("${llm.timeout:30000}")
+    private long responseTimeoutMs;
+
+    @Value("${llm.connect-timeout:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${llm.pool.max-total:64}")
+    private int maxTotal;
+
+    @Value("${llm.pool.max-per-route:32}")
+    private int maxPerRoute;
+
+    @Value("${llm.pool.acquire-timeout:5000}")
+    private long acquireTimeoutMs;
+
+    @Value("${llm.pool.keep-alive-ms:60000}")
+    private long keepAliveMs;
+
+    @Value("${llm.pool.idle-evict-ms:30000}")
+    private long idleEvictMs;
+
+    @Bean(name = "llmHttpClient", destroyMethod = "close")
+    public CloseableHttpClient llmHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                .build();
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(responseTimeoutMs))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.ofMilliseconds(keepAliveMs))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                .build();
+    }
+
+    @Bean(name = "llmRestTemplate")
+    public RestTemplate llmRestTemplate(@Qualifier("llmHttpClient") CloseableHttpClient llmHttpClient) {
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(llmHttpClient));
+    }
+}
@@ -0,0 +1,88 @@
+package com.niyamr.pdfchecker.config;
+
+import com.niyamr.pdfchecker.service.LLMProvider;
+import com.niyamr.pdfchecker.service.impl.AnthropicProvider;
+import com.niyamr.pdfchecker.service.impl.OpenAICompatibleProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the LLM backends from llm.routing.backends, or a single backend
+ * from the top-level llm.* settings when none are listed
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(LlmRoutingProperties.class)
+public class LlmProviderConfig {
+
+    @Value("${llm.provider:openai}")
+    private String provider;
+
+    @Value("${llm.api-url}")
+    private String apiUrl;
+
+    @Value("${llm.api-key}")
+    private String apiKey;
+
+    @Value("${llm.rate-limit.requests-per-minute:0}")
+    private long requestsPerMinute;
+
+    @Value("${llm.rate-limit.tokens-per-minute:0}")
+    private long tokensPerMinute;
+
+    @Value("${llm.prompt-cache.enabled:true}")
+    private boolean promptCacheEnabled;
+
+    @Value("${llm.streaming.enabled:false}")
+    private boolean streaming;
+
+    @Bean(name = "llmProviders")
+    public List<LLMProvider> llmProviders(LlmRoutingProperties properties,
+                                          @Qualifier("llmRestTemplate") RestTemplate restTemplate) {
+        List<LlmRoutingProperties.Backend> backends = properties.getBackends();
+        if (backends.isEmpty()) {
+            backends = List.of(defaultBackend());
+        }
+
+        List<LLMProvider> providers = new ArrayList<>(backends.size());
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < backends.size(); i++) {
+            LlmRoutingProperties.Backend backend = backends.get(i);
+            if (StringUtils.isBlank(backend.getName())) {
+                backend.setName(backend.getProvider() + "-" + (i + 1));
+            }
+            if (!names.add(backend.getName())) {
+                throw new IllegalStateException("Duplicate LLM backend name: " + backend.getName());
+            }
+
+            providers.add("anthropic".equalsIgnoreCase(backend.getProvider())
+                    ? new AnthropicProvider(backend, restTemplate, streaming, promptCacheEnabled)
+                    : new OpenAICompatibleProvider(backend, restTemplate, streaming));
+            log.info("Configured LLM backend {} ({}, weight {})",
+                    backend.getName(), backend.getProvider(), backend.getWeight());
+        }
+        return providers;
+    }
+
+    private LlmRoutingProperties.Backend defaultBackend() {
+        LlmRoutingProperties.Backend backend = new LlmRoutingProperties.Backend();
+        backend.setName(provider);
+        backend.setProvider(provider);
+        backend.setApiUrl(apiUrl);
+        backend.setApiKey(apiKey);
+        backend.setRequestsPerMinute(requestsPerMinute);
+        backend.setTokensPerMinute(tokensPerMinute);
+        return backend;
+    }
+}
@@ -0,0 +1,150 @@
+package com.niyamr.pdfchecker.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LLM backends and routing settings bound from llm.routing.*. Lists cannot
+ * be injected with @Value, so this section uses property binding.
+ */
+@Data
+@ConfigurationProperties(prefix = "llm.routing")
+public class LlmRoutingProperties {
+
+    /**
+     * Configured backends. When empty, a single backend is built from the
+     * top-level llm.provider, llm.api-url, llm.api-key and llm.model.
+     */
+    private List<Backend> backends = new ArrayList<>();
+
+    private Hedge hedge = new Hedge();
+
+    private Breaker circuitBreaker = new Breaker();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    @Data
+    public static class Backend {
+
+        /**
+         * Unique name used in logs
+         */
+        private String name;
+
+        /**
+         * Wire format: openai (also Groq and other compatible APIs) or anthropic
+         */
+        private String provider = "openai";
+
+        private String apiUrl;
+
+        private String apiKey;
+
+        /**
+         * Model override; the request's model is used when blank
+         */
+        private String model;
+
+        /**
+         * Relative share of traffic
+         */
+        private int weight = 1;
+
+        /**
+         * Client-side quotas for this backend, 0 = unlimited
+         */
+        private long requestsPerMinute;
+
+        private long tokensPerMinute;
+    }
+
+    @Data
+    public static class Hedge {
+
+        /**
+         * Send a duplicate request to a second backend when the first is slow
+         */
+        private boolean enabled;
+
+        /**
+         * Latency percentile of the primary backend that triggers the hedge
+         */
+        private double percentile = 0.95;
+
+        /**
+         * Hedge delay used until enough latencies have been observed
+         */
+        private long initialDelayMs = 5000;
+
+        /**
+         * Lower bound on the hedge delay
+         */
+        private long minDelayMs = 500;
+
+        /**
+         * Recent latencies kept per backend
+         */
+        private int windowSize = 200;
+
+        /**
+         * Latencies needed before the percentile is trusted
+         */
+        private int minSamples = 20;
+    }
+
+    @Data
+    public static class Breaker {
+
+        /**
+         * Recent calls per backend the rates are computed over
+         */
+        private int windowSize = 50;
+
+        /**
+         * Calls needed in the window before the breaker may open
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * Failure rate (0-1) that opens the breaker
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * Slow call rate (0-1) that opens the breaker
+         */
+        private double slowCallRateThreshold = 0.8;
+
+        /**
+         * Calls taking at least this long count as slow
+         */
+        private long slowCallMs = 20000;
+
+        /**
+         * Time the breaker stays open before trial calls
+         */
+        private long openWaitMs = 30000;
+
+        /**
+         * Trial calls allowed while half open
+         */
+        private int halfOpenCalls = 3;
+    }
+
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * Concurrent in-flight calls allowed per backend
+         */
+        private int maxConcurrentCalls = 16;
+
+        /**
+         * Time to wait for a free slot before failing fast
+         */
+        private long maxWaitMs = 1000;
+    }
+}
@@ -0,0 +1,53 @@
+package com.niyamr.pdfchecker.config;
+
+import com.niyamr.pdfchecker.model.CacheStats;
+import com.niyamr.pdfchecker.service.DocumentCacheService;
+import com.niyamr.pdfchecker.service.VerdictCacheService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Supplier;
+
+/**
+ * Exposes the application caches' hit counts as Micrometer meters. The
+ * caches keep their own counters, so the meters read them on scrape.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheMetrics(VerdictCacheService verdictCacheService,
+                                    DocumentCacheService documentCacheService) {
+        return registry -> {
+            bindCache(registry, verdictCacheService::getStats);
+            bindCache(registry, documentCacheService::getStats);
+        };
+    }
+
+    private void bindCache(MeterRegistry registry, Supplier<CacheStats> stats) {
+        String cache = stats.get().getName();
+        FunctionCounter.builder("pdfchecker.cache.requests", stats, source -> source.get().getMemoryHits())
+                .description("Cache lookups by outcome")
+                .tag("cache", cache)
+                .tag("result", "memory-hit")
+                .register(registry);
+        FunctionCounter.builder("pdfchecker.cache.requests", stats, source -> source.get().getSecondaryHits())
+                .description("Cache lookups by outcome")
+                .tag("cache", cache)
+                .tag("result", "secondary-hit")
+                .register(registry);
+        FunctionCounter.builder("pdfchecker.cache.requests", stats, source -> source.get().getMisses())
+                .description("Cache lookups by outcome")
+                .tag("cache", cache)
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("pdfchecker.cache.size", stats, source -> source.get().getSize())
+                .description("Entries held in memory")
+                .tag("cache", cache)
+                .register(registry);
+    }
+}
@@ -36,6 +36,22 @@ public final class AppConstants {
     public static final String STATUS_FAIL = "FAIL";
     public static final String STATUS_ERROR = "ERROR";
     
+    // Verdict Source
+    public static final String SOURCE_LLM = "LLM";
+    public static final String SOURCE_LOCAL = "LOCAL";
+    
+    // Check Job Status
+    public static final String JOB_QUEUED = "QUEUED";
+    public static final String JOB_RUNNING = "RUNNING";
+    public static final String JOB_COMPLETED = "COMPLETED";
+    public static final String JOB_FAILED = "FAILED";
+    
+    // Batch Audit Status
+    public static final String AUDIT_PREPARING = "PREPARING";
+    public static final String AUDIT_SUBMITTED = "SUBMITTED";
+    public static final String AUDIT_COMPLETED = "COMPLETED";
+    public static final String AUDIT_FAILED = "FAILED";
+    
     // Confidence Thresholds
     public static final int MIN_CONFIDENCE = 0;
     public static final int MAX_CONFIDENCE = 100;
@@ -0,0 +1,111 @@
+package com.niyamr.pdfchecker.controller;
+
+import com.niyamr.pdfchecker.constant.AppConstants;
+import com.niyamr.pdfchecker.dto.AuditStatusResponse;
+import com.niyamr.pdfchecker.model.BatchAudit;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.service.AuditService;
+import com.niyamr.pdfchecker.service.PdfService;
+import com.niyamr.pdfchecker.service.SavedRuleSetService;
+import com.niyamr.pdfchecker.service.ValidationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * REST Controller for offline audits checked through provider batches
+ */
+@Slf4j
+@RestController
+@RequestMapping("/v1/pdf/audits")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class AuditController {
+
+    private final PdfService pdfService;
+    private final AuditService auditService;
+    private final ValidationService validationService;
+    private final SavedRuleSetService savedRuleSetService;
+
+    @Value("${bulk-check.max-documents:500}")
+    private int maxDocuments;
+
+    /**
+     * Submit many PDFs for an offline audit and return immediately with an
+     * audit id. Results arrive when the provider finishes the batch, which
+     * can take hours.
+     *
+     * @param files PDF files to audit
+     * @param rules List of rules (comma-separated or multiple params)
+     * @param ruleSetId Saved rule set to check instead of rules
+     * @param ruleSetVersion Version of the saved rule set, latest if absent
+     * @return Accepted audit status
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<AuditStatusResponse> submit(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "rules", required = false) List<String> rules,
+            @RequestParam(value = "ruleSetId", required = false) String ruleSetId,
+            @RequestParam(value = "ruleSetVersion", required = false) Integer ruleSetVersion) {
+
+        rules = savedRuleSetService.resolveRules(rules, ruleSetId, ruleSetVersion);
+
+        log.info("Received audit of {} files with {} rules", files.size(), rules.size());
+
+        validationService.validateBulkRequest(files, rules, maxDocuments);
+
+        List<PdfUpload> uploads = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                uploads.add(pdfService.storeUpload(file));
+            }
+        } catch (RuntimeException e) {
+            uploads.forEach(PdfUpload::close);
+            throw e;
+        }
+
+        BatchAudit audit = auditService.submit(uploads, rules);
+
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{auditId}")
+                        .buildAndExpand(audit.getAuditId())
+                        .toUri())
+                .body(AuditStatusResponse.from(audit));
+    }
+
+    /**
+     * Get audit status
+     */
+    @GetMapping("/{auditId}")
+    public ResponseEntity<AuditStatusResponse> status(@PathVariable String auditId) {
+        return ResponseEntity.ok(AuditStatusResponse.from(auditService.getAudit(auditId)));
+    }
+
+    /**
+     * Get the check response of every audited document. While the audit is
+     * pending (202) or after it failed (500) the audit status is returned
+     * instead.
+     */
+    @GetMapping("/{auditId}/results")
+    public ResponseEntity<?> results(@PathVariable String auditId) {
+        BatchAudit audit = auditService.getAudit(auditId);
+
+        if (AppConstants.AUDIT_COMPLETED.equals(audit.getStatus())) {
+            return ResponseEntity.ok(auditService.getResults(audit));
+        }
+        HttpStatus status = AppConstants.AUDIT_FAILED.equals(audit.getStatus())
+                ? HttpStatus.INTERNAL_SERVER_ERROR
+                : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(AuditStatusResponse.from(audit));
+    }
+}
@@ -0,0 +1,32 @@
+package com.niyamr.pdfchecker.controller;
+
+import com.niyamr.pdfchecker.model.CacheStats;
+import com.niyamr.pdfchecker.service.DocumentCacheService;
+import com.niyamr.pdfchecker.service.VerdictCacheService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing cache statistics
+ */
+@RestController
+@RequestMapping("/v1/cache")
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final VerdictCacheService verdictCacheService;
+    private final DocumentCacheService documentCacheService;
+
+    /**
+     * Hit/miss statistics for the application caches
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStats>> stats() {
+        return ResponseEntity.ok(List.of(verdictCacheService.getStats(), documentCacheService.getStats()));
+    }
+}
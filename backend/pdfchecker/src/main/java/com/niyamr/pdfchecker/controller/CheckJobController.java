@@ -0,0 +1,100 @@
+package com.niyamr.pdfchecker.controller;
+
+import com.niyamr.pdfchecker.constant.AppConstants;
+import com.niyamr.pdfchecker.dto.CheckRequest;
+import com.niyamr.pdfchecker.dto.JobStatusResponse;
+import com.niyamr.pdfchecker.model.CheckJob;
+import com.niyamr.pdfchecker.service.CheckJobService;
+import com.niyamr.pdfchecker.service.PdfService;
+import com.niyamr.pdfchecker.service.SavedRuleSetService;
+import com.niyamr.pdfchecker.service.ValidationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * REST Controller for asynchronous check jobs
+ */
+@Slf4j
+@RestController
+@RequestMapping("/v1/pdf/jobs")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class CheckJobController {
+
+    private final PdfService pdfService;
+    private final CheckJobService checkJobService;
+    private final ValidationService validationService;
+    private final SavedRuleSetService savedRuleSetService;
+
+    /**
+     * Submit a PDF check and return immediately with a job id
+     *
+     * @param file PDF file to check
+     * @param rules List of rules (comma-separated or multiple params)
+     * @param ruleSetId Saved rule set to check instead of rules
+     * @param ruleSetVersion Version of the saved rule set, latest if absent
+     * @return Accepted job status
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<JobStatusResponse> submit(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "rules", required = false) List<String> rules,
+            @RequestParam(value = "ruleSetId", required = false) String ruleSetId,
+            @RequestParam(value = "ruleSetVersion", required = false) Integer ruleSetVersion) {
+
+        rules = savedRuleSetService.resolveRules(rules, ruleSetId, ruleSetVersion);
+
+        log.info("Received check job for file: {} with {} rules",
+                file.getOriginalFilename(), rules.size());
+
+        CheckRequest request = CheckRequest.builder()
+                .file(file)
+                .rules(rules)
+                .build();
+
+        validationService.validateRequest(request);
+
+        // Store the upload now; the servlet deletes its multipart data when the request ends
+        CheckJob job = checkJobService.submit(pdfService.storeUpload(file), rules);
+
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{jobId}")
+                        .buildAndExpand(job.getJobId())
+                        .toUri())
+                .body(JobStatusResponse.from(job));
+    }
+
+    /**
+     * Get job status
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<JobStatusResponse> status(@PathVariable String jobId) {
+        return ResponseEntity.ok(JobStatusResponse.from(checkJobService.getJob(jobId)));
+    }
+
+    /**
+     * Get job result. While the job is pending (202) or after it failed (500)
+     * the job status is returned instead.
+     */
+    @GetMapping("/{jobId}/result")
+    public ResponseEntity<?> result(@PathVariable String jobId) {
+        CheckJob job = checkJobService.getJob(jobId);
+
+        if (AppConstants.JOB_COMPLETED.equals(job.getStatus())) {
+            return ResponseEntity.ok(job.getResult());
+        }
+        HttpStatus status = AppConstants.JOB_FAILED.equals(job.getStatus())
+                ? HttpStatus.INTERNAL_SERVER_ERROR
+                : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(JobStatusResponse.from(job));
+    }
+}
@@ -0,0 +1,30 @@
+package com.niyamr.pdfchecker.controller;
+
+import com.niyamr.pdfchecker.model.BackendStatus;
+import com.niyamr.pdfchecker.service.LLMRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST Controller exposing the health guards of the LLM backends
+ */
+@RestController
+@RequestMapping("/v1/llm")
+@RequiredArgsConstructor
+public class LLMBackendController {
+
+    private final LLMRouter llmRouter;
+
+    /**
+     * Circuit breaker and bulkhead state of every configured backend
+     */
+    @GetMapping("/backends")
+    public ResponseEntity<List<BackendStatus>> backends() {
+        return ResponseEntity.ok(llmRouter.getBackendStatus());
+    }
+}
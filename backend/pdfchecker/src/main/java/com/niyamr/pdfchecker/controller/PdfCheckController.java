@@ -1,20 +1,24 @@
 package com.niyamr.pdfchecker.controller;
 
 import com.niyamr.pdfchecker.dto.CheckRequest;
-import com.niyamr.pdfchecker.service.LLMService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.niyamr.pdfchecker.dto.CheckResponse;
-import com.niyamr.pdfchecker.model.LLMResponse;
-import com.niyamr.pdfchecker.model.RuleResult;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.service.BulkCheckService;
+import com.niyamr.pdfchecker.service.CheckService;
+import com.niyamr.pdfchecker.service.CheckStreamService;
 import com.niyamr.pdfchecker.service.PdfService;
+import com.niyamr.pdfchecker.service.SavedRuleSetService;
 import com.niyamr.pdfchecker.service.ValidationService;
 
 import java.util.ArrayList;
@@ -31,22 +35,33 @@ import java.util.List;
 public class PdfCheckController {
     
     private final PdfService pdfService;
-    private final LLMService llmService;
+    private final CheckService checkService;
+    private final CheckStreamService checkStreamService;
     private final ValidationService validationService;
+    private final SavedRuleSetService savedRuleSetService;
+    private final BulkCheckService bulkCheckService;
+    
+    @Value("${bulk-check.max-documents:500}")
+    private int maxBulkDocuments;
     
     /**
      * Check PDF document against rules
      * 
      * @param file PDF file to check
      * @param rules List of rules (comma-separated or multiple params)
+     * @param ruleSetId Saved rule set to check instead of rules
+     * @param ruleSetVersion Version of the saved rule set, latest if absent
      * @return Check response with results
      */
     @PostMapping(value = "/check", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<CheckResponse> checkDocument(
             @RequestParam("file") MultipartFile file,
-            @RequestParam("rules") List<String> rules) {
+            @RequestParam(value = "rules", required = false) List<String> rules,
+            @RequestParam(value = "ruleSetId", required = false) String ruleSetId,
+            @RequestParam(value = "ruleSetVersion", required = false) Integer ruleSetVersion) {
+        
+        rules = savedRuleSetService.resolveRules(rules, ruleSetId, ruleSetVersion);
         
-        long startTime = System.currentTimeMillis();
         log.info("Received check request for file: {} with {} rules", 
                 file.getOriginalFilename(), rules.size());
         
@@ -59,48 +74,86 @@ public class PdfCheckController {
             
             validationService.validateRequest(request);
             
-            // Extract text from PDF
-            String documentText = pdfService.extractText(file);
-            int pageCount = pdfService.getPageCount(file);
-            
-            // Check each rule
-            List<RuleResult> results = new ArrayList<>();
-            for (String rule : rules) {
-                LLMResponse llmResponse = llmService.checkRule(documentText, rule);
-                
-                RuleResult ruleResult = RuleResult.builder()
-                        .rule(rule)
-                        .status(llmResponse.getStatus())
-                        .evidence(llmResponse.getEvidence())
-                        .reasoning(llmResponse.getReasoning())
-                        .confidence(llmResponse.getConfidence())
-                        .build();
-                
-                results.add(ruleResult);
+            try (PdfUpload upload = pdfService.storeUpload(file)) {
+                return ResponseEntity.ok(checkService.check(upload, rules));
             }
             
-            // Build response
-            long processingTime = System.currentTimeMillis() - startTime;
-            CheckResponse response = CheckResponse.builder()
-                    .fileName(file.getOriginalFilename())
-                    .totalPages(pageCount)
-                    .results(results)
-                    .processingTimeMs(processingTime)
-                    .build();
-            
-            response.calculateOverallStatus();
-            
-            log.info("Check completed successfully in {}ms - Status: {}", 
-                    processingTime, response.getOverallStatus());
-            
-            return ResponseEntity.ok(response);
-            
         } catch (Exception e) {
             log.error("Error processing check request", e);
             throw e;
         }
     }
     
+    /**
+     * Check PDF document against rules, streaming each rule result as a
+     * Server-Sent Event as soon as it is ready
+     * 
+     * @param file PDF file to check
+     * @param rules List of rules (comma-separated or multiple params)
+     * @param ruleSetId Saved rule set to check instead of rules
+     * @param ruleSetVersion Version of the saved rule set, latest if absent
+     * @return Event stream of "rule" events followed by a "complete" event
+     */
+    @PostMapping(value = "/check/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter checkDocumentStream(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "rules", required = false) List<String> rules,
+            @RequestParam(value = "ruleSetId", required = false) String ruleSetId,
+            @RequestParam(value = "ruleSetVersion", required = false) Integer ruleSetVersion) {
+        
+        rules = savedRuleSetService.resolveRules(rules, ruleSetId, ruleSetVersion);
+        
+        log.info("Received streaming check request for file: {} with {} rules", 
+                file.getOriginalFilename(), rules.size());
+        
+        CheckRequest request = CheckRequest.builder()
+                .file(file)
+                .rules(rules)
+                .build();
+        
+        validationService.validateRequest(request);
+        
+        return checkStreamService.stream(pdfService.storeUpload(file), rules);
+    }
+    
+    /**
+     * Check many PDF documents against one set of rules, streaming each
+     * document's results as a Server-Sent Event as soon as it is done
+     * 
+     * @param files PDF files to check
+     * @param rules List of rules (comma-separated or multiple params)
+     * @param ruleSetId Saved rule set to check instead of rules
+     * @param ruleSetVersion Version of the saved rule set, latest if absent
+     * @return Event stream of "document" events followed by a "complete" event
+     */
+    @PostMapping(value = "/check/bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter checkDocumentsBulk(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "rules", required = false) List<String> rules,
+            @RequestParam(value = "ruleSetId", required = false) String ruleSetId,
+            @RequestParam(value = "ruleSetVersion", required = false) Integer ruleSetVersion) {
+        
+        rules = savedRuleSetService.resolveRules(rules, ruleSetId, ruleSetVersion);
+        
+        log.info("Received bulk check request for {} files with {} rules", files.size(), rules.size());
+        
+        validationService.validateBulkRequest(files, rules, maxBulkDocuments);
+        
+        List<PdfUpload> uploads = new ArrayList<>(files.size());
+        try {
+            for (MultipartFile file : files) {
+                uploads.add(pdfService.storeUpload(file));
+            }
+        } catch (RuntimeException e) {
+            uploads.forEach(PdfUpload::close);
+            throw e;
+        }
+        
+        return bulkCheckService.stream(uploads, rules);
+    }
+    
     /**
      * Health check endpoint
      */
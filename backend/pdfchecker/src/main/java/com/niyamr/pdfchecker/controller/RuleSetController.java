@@ -0,0 +1,63 @@
+package com.niyamr.pdfchecker.controller;
+
+import com.niyamr.pdfchecker.dto.RuleSetRequest;
+import com.niyamr.pdfchecker.model.SavedRuleSet;
+import com.niyamr.pdfchecker.service.SavedRuleSetService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * REST Controller for saved, versioned rule sets. Checks reference a saved
+ * set with the ruleSetId (and optional ruleSetVersion) parameters instead
+ * of sending rules.
+ */
+@RestController
+@RequestMapping("/v1/rule-sets")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class RuleSetController {
+
+    private final SavedRuleSetService savedRuleSetService;
+
+    /**
+     * Save a new rule set as version 1
+     */
+    @PostMapping
+    public ResponseEntity<SavedRuleSet> create(@RequestBody RuleSetRequest request) {
+        SavedRuleSet saved = savedRuleSetService.create(request.getName(), request.getRules());
+        return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}")
+                        .buildAndExpand(saved.getId())
+                        .toUri())
+                .body(saved);
+    }
+
+    /**
+     * Save the next version of a rule set
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<SavedRuleSet> update(@PathVariable String id, @RequestBody RuleSetRequest request) {
+        return ResponseEntity.ok(savedRuleSetService.update(id, request.getName(), request.getRules()));
+    }
+
+    /**
+     * Latest version of every rule set
+     */
+    @GetMapping
+    public ResponseEntity<List<SavedRuleSet>> list() {
+        return ResponseEntity.ok(savedRuleSetService.list());
+    }
+
+    /**
+     * Get a rule set, the latest version unless one is given
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<SavedRuleSet> get(@PathVariable String id,
+                                            @RequestParam(value = "version", required = false) Integer version) {
+        return ResponseEntity.ok(savedRuleSetService.get(id, version));
+    }
+}
@@ -0,0 +1,75 @@
+package com.niyamr.pdfchecker.dto;
+
+import com.niyamr.pdfchecker.model.BatchAudit;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for batch audit status
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditStatusResponse {
+
+    /**
+     * Audit identifier
+     */
+    private String auditId;
+
+    /**
+     * Status: PREPARING, SUBMITTED, COMPLETED or FAILED
+     */
+    private String status;
+
+    /**
+     * Number of documents in the audit
+     */
+    private Integer documentCount;
+
+    /**
+     * Number of rules per document
+     */
+    private Integer ruleCount;
+
+    /**
+     * Number of rule checks sent to the provider batch
+     */
+    private Integer requestCount;
+
+    /**
+     * Time the audit was accepted
+     */
+    private LocalDateTime submittedAt;
+
+    /**
+     * Time the audit finished
+     */
+    private LocalDateTime completedAt;
+
+    /**
+     * Error message if the audit failed
+     */
+    private String error;
+
+    /**
+     * Create a status response from an audit
+     */
+    public static AuditStatusResponse from(BatchAudit audit) {
+        return AuditStatusResponse.builder()
+                .auditId(audit.getAuditId())
+                .status(audit.getStatus())
+                .documentCount(audit.getDocuments() == null ? null : audit.getDocuments().size())
+                .ruleCount(audit.getRules() == null ? null : audit.getRules().size())
+                .requestCount(audit.getRequestCount())
+                .submittedAt(audit.getSubmittedAt())
+                .completedAt(audit.getCompletedAt())
+                .error(audit.getError())
+                .build();
+    }
+}
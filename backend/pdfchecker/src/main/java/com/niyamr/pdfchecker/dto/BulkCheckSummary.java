@@ -0,0 +1,41 @@
+package com.niyamr.pdfchecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO sent when a bulk check has finished
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCheckSummary {
+
+    /**
+     * Documents in the request
+     */
+    private Integer documentCount;
+
+    /**
+     * Documents checked successfully
+     */
+    private Integer checkedCount;
+
+    /**
+     * Documents that failed
+     */
+    private Integer failedCount;
+
+    /**
+     * Documents not started because the client disconnected
+     */
+    private Integer skippedCount;
+
+    /**
+     * Total processing time in milliseconds
+     */
+    private Long processingTimeMs;
+}
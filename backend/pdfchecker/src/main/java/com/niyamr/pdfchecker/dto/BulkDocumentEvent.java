@@ -0,0 +1,36 @@
+package com.niyamr.pdfchecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the streamed result of one document in a bulk check
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDocumentEvent {
+
+    /**
+     * Position of the document in the request (0-based)
+     */
+    private Integer index;
+
+    /**
+     * Name of the checked file
+     */
+    private String fileName;
+
+    /**
+     * Check response, absent if the document failed
+     */
+    private CheckResponse response;
+
+    /**
+     * Error message if the document could not be checked
+     */
+    private String error;
+}
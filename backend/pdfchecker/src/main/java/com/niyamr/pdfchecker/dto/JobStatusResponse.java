@@ -0,0 +1,69 @@
+package com.niyamr.pdfchecker.dto;
+
+import com.niyamr.pdfchecker.model.CheckJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for check job status
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatusResponse {
+
+    /**
+     * Job identifier
+     */
+    private String jobId;
+
+    /**
+     * Status: QUEUED, RUNNING, COMPLETED or FAILED
+     */
+    private String status;
+
+    /**
+     * Name of the checked file
+     */
+    private String fileName;
+
+    /**
+     * Number of rules in the job
+     */
+    private Integer ruleCount;
+
+    /**
+     * Time the job was accepted
+     */
+    private LocalDateTime submittedAt;
+
+    /**
+     * Time the job finished
+     */
+    private LocalDateTime completedAt;
+
+    /**
+     * Error message if the job failed
+     */
+    private String error;
+
+    /**
+     * Create a status response from a job
+     */
+    public static JobStatusResponse from(CheckJob job) {
+        return JobStatusResponse.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus())
+                .fileName(job.getFileName())
+                .ruleCount(job.getRuleCount())
+                .submittedAt(job.getSubmittedAt())
+                .completedAt(job.getCompletedAt())
+                .error(job.getError())
+                .build();
+    }
+}
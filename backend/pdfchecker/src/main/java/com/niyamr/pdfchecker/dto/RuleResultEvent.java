@@ -0,0 +1,27 @@
+package com.niyamr.pdfchecker.dto;
+
+import com.niyamr.pdfchecker.model.RuleResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a single streamed rule result
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleResultEvent {
+
+    /**
+     * Position of the rule in the request (0-based)
+     */
+    private Integer index;
+
+    /**
+     * Rule check result
+     */
+    private RuleResult result;
+}
@@ -0,0 +1,28 @@
+package com.niyamr.pdfchecker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for creating or updating a saved rule set
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleSetRequest {
+
+    /**
+     * Display name of the rule set
+     */
+    private String name;
+
+    /**
+     * Rules to save
+     */
+    private List<String> rules;
+}
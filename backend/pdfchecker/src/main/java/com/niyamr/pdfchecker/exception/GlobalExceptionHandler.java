@@ -87,6 +87,63 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
     
+    /**
+     * Handle unknown or expired check jobs
+     */
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleJobNotFoundException(
+            JobNotFoundException ex, WebRequest request) {
+        
+        log.error("Check job not found: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.of(
+                HttpStatus.NOT_FOUND.value(),
+                "Check job not found",
+                request.getDescription(false).replace("uri=", "")
+        );
+        errorResponse.setDetails(ex.getMessage());
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+    
+    /**
+     * Handle unknown saved rule sets
+     */
+    @ExceptionHandler(RuleSetNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleRuleSetNotFoundException(
+            RuleSetNotFoundException ex, WebRequest request) {
+        
+        log.error("Rule set not found: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.of(
+                HttpStatus.NOT_FOUND.value(),
+                "Rule set not found",
+                request.getDescription(false).replace("uri=", "")
+        );
+        errorResponse.setDetails(ex.getMessage());
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+    
+    /**
+     * Handle a full check job queue
+     */
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleJobQueueFullException(
+            JobQueueFullException ex, WebRequest request) {
+        
+        log.error("Check job rejected: {}", ex.getMessage());
+        
+        ErrorResponse errorResponse = ErrorResponse.of(
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Check job queue is full",
+                request.getDescription(false).replace("uri=", "")
+        );
+        errorResponse.setDetails(ex.getMessage());
+        
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    
     /**
      * Handle file size exceeded errors
      */
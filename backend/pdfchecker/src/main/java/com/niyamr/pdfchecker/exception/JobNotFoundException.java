@@ -0,0 +1,15 @@
+package com.niyamr.pdfchecker.exception;
+
+/**
+ * Exception for unknown or expired check jobs
+ */
+public class JobNotFoundException extends RuntimeException {
+    
+    public JobNotFoundException(String message) {
+        super(message);
+    }
+    
+    public JobNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.niyamr.pdfchecker.exception;
+
+/**
+ * Exception when the check job queue cannot accept more work
+ */
+public class JobQueueFullException extends RuntimeException {
+    
+    public JobQueueFullException(String message) {
+        super(message);
+    }
+    
+    public JobQueueFullException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,12 @@
+package com.niyamr.pdfchecker.exception;
+
+/**
+ * Exception for an LLM backend that refuses calls without trying, because
+ * its circuit breaker is open or its bulkhead is full
+ */
+public class LLMBackendUnavailableException extends LLMServiceException {
+    
+    public LLMBackendUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.niyamr.pdfchecker.exception;
+
+/**
+ * Exception for unknown saved rule sets or rule set versions
+ */
+public class RuleSetNotFoundException extends RuntimeException {
+    
+    public RuleSetNotFoundException(String message) {
+        super(message);
+    }
+    
+    public RuleSetNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
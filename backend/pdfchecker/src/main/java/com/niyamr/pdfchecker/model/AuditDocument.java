@@ -0,0 +1,44 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Domain model for one document of a batch audit. Verdicts are kept per
+ * distinct rule of the audit and fanned out to duplicate rules on read.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditDocument {
+
+    /**
+     * Name of the checked file
+     */
+    private String fileName;
+
+    /**
+     * Total number of pages in the document
+     */
+    private Integer totalPages;
+
+    /**
+     * Verdict per distinct rule; null while it waits for the batch
+     */
+    private List<RuleResult> verdicts;
+
+    /**
+     * Verdict cache key per distinct rule sent to the batch, null otherwise
+     */
+    private List<String> cacheKeys;
+
+    /**
+     * Error message if the document could not be extracted
+     */
+    private String error;
+}
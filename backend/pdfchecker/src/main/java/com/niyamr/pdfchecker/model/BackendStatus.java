@@ -0,0 +1,51 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of the health guards of one LLM backend
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BackendStatus {
+
+    /**
+     * Backend name
+     */
+    private String name;
+
+    /**
+     * Circuit breaker state: CLOSED, OPEN or HALF_OPEN
+     */
+    private String circuitState;
+
+    /**
+     * Failure rate (0-1) over the breaker's window
+     */
+    private double failureRate;
+
+    /**
+     * Slow call rate (0-1) over the breaker's window
+     */
+    private double slowCallRate;
+
+    /**
+     * Calls in the breaker's window
+     */
+    private int recordedCalls;
+
+    /**
+     * Calls currently in flight
+     */
+    private int inFlightCalls;
+
+    /**
+     * Bulkhead limit on concurrent calls
+     */
+    private int maxConcurrentCalls;
+}
@@ -0,0 +1,83 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Domain model for an offline audit checked through a provider batch.
+ * Instances are replaced, not mutated, on every state change.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchAudit {
+
+    /**
+     * Audit identifier
+     */
+    private String auditId;
+
+    /**
+     * Status: PREPARING, SUBMITTED, COMPLETED or FAILED
+     */
+    private String status;
+
+    /**
+     * Batch provider the audit was sent to
+     */
+    private String provider;
+
+    /**
+     * Provider's batch id once submitted
+     */
+    private String batchId;
+
+    /**
+     * Rules as submitted
+     */
+    private List<String> rules;
+
+    /**
+     * Indices of the rules in each group of near-duplicates; the first
+     * member is the distinct rule that is checked
+     */
+    private List<List<Integer>> groups;
+
+    /**
+     * Documents in submission order
+     */
+    private List<AuditDocument> documents;
+
+    /**
+     * Number of requests sent to the provider
+     */
+    private int requestCount;
+
+    /**
+     * Time the audit was accepted
+     */
+    private LocalDateTime submittedAt;
+
+    /**
+     * Time the audit finished (successfully or not)
+     */
+    private LocalDateTime completedAt;
+
+    /**
+     * Error message if the audit failed
+     */
+    private String error;
+
+    /**
+     * Check if the audit has finished
+     */
+    public boolean isFinished() {
+        return completedAt != null;
+    }
+}
@@ -0,0 +1,31 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model for the outcome of one request in a provider batch
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResult {
+
+    /**
+     * Id the request was submitted with
+     */
+    private String customId;
+
+    /**
+     * Completion text, absent if the request failed
+     */
+    private String content;
+
+    /**
+     * Error message if the request failed
+     */
+    private String error;
+}
@@ -0,0 +1,50 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Snapshot of hit/miss counters for one of the application caches
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStats {
+
+    /**
+     * Cache name
+     */
+    private String name;
+
+    /**
+     * Hits served from memory
+     */
+    private long memoryHits;
+
+    /**
+     * Hits served from the secondary tier (database or disk)
+     */
+    private long secondaryHits;
+
+    /**
+     * Lookups that found nothing
+     */
+    private long misses;
+
+    /**
+     * Entries currently held in memory
+     */
+    private long size;
+
+    /**
+     * Fraction of lookups that were hits (0-1)
+     */
+    public double getHitRate() {
+        long hits = memoryHits + secondaryHits;
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,72 @@
+package com.niyamr.pdfchecker.model;
+
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain model for an asynchronous check job. Instances are replaced, not
+ * mutated, on every state change so readers always see a consistent snapshot.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckJob {
+
+    /**
+     * Job identifier
+     */
+    private String jobId;
+
+    /**
+     * Status: QUEUED, RUNNING, COMPLETED or FAILED
+     */
+    private String status;
+
+    /**
+     * Name of the checked file
+     */
+    private String fileName;
+
+    /**
+     * Number of rules in the job
+     */
+    private int ruleCount;
+
+    /**
+     * Time the job was accepted
+     */
+    private LocalDateTime submittedAt;
+
+    /**
+     * Time a worker picked the job up
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * Time the job finished (successfully or not)
+     */
+    private LocalDateTime completedAt;
+
+    /**
+     * Check result once the job has completed
+     */
+    private CheckResponse result;
+
+    /**
+     * Error message if the job failed
+     */
+    private String error;
+
+    /**
+     * Check if the job has finished
+     */
+    public boolean isFinished() {
+        return completedAt != null;
+    }
+}
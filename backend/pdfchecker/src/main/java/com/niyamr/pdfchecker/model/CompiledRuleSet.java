@@ -0,0 +1,55 @@
+package com.niyamr.pdfchecker.model;
+
+import com.niyamr.pdfchecker.util.AhoCorasickMatcher;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Domain model for a rule list with near-duplicate rules grouped, so each
+ * group is checked once and its verdict reported for every member, and
+ * with the local checks of the groups compiled ahead of time
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompiledRuleSet {
+
+    /**
+     * Rules as submitted, in order
+     */
+    private List<String> rules;
+
+    /**
+     * One rule per group, the first member in submission order
+     */
+    private List<String> representatives;
+
+    /**
+     * Indexes into {@link #rules} of the members of each group, indexed like
+     * {@link #representatives}
+     */
+    private List<List<Integer>> groups;
+
+    /**
+     * Local check of each representative, or null where the LLM decides
+     */
+    private List<LocalRule> localRules;
+
+    /**
+     * Automaton over the phrases of the phrase rules in {@link #localRules},
+     * in order; null if there are none
+     */
+    private AhoCorasickMatcher phraseMatcher;
+
+    /**
+     * Number of rules that share another rule's check
+     */
+    public int getDuplicateCount() {
+        return rules.size() - representatives.size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model for a page- and paragraph-aware slice of an extracted document
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentChunk {
+
+    /**
+     * Position of the chunk in document order, starting at 0
+     */
+    private int index;
+
+    /**
+     * Page the chunk was taken from (1-based)
+     */
+    private int pageNumber;
+
+    /**
+     * Chunk text
+     */
+    private String text;
+}
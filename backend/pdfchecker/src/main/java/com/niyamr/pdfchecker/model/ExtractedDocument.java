@@ -0,0 +1,64 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Domain model for a PDF that has been parsed once, holding everything
+ * later stages need so the file itself does not have to be read again
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtractedDocument {
+
+    /**
+     * Original file name of the upload
+     */
+    private String fileName;
+
+    /**
+     * SHA-256 of the uploaded PDF bytes, as lowercase hex
+     */
+    private String contentHash;
+
+    /**
+     * Full extracted text (all pages in order)
+     */
+    private String text;
+
+    /**
+     * Number of pages in the document
+     */
+    private int pageCount;
+
+    /**
+     * Extracted text of each page, index 0 is page 1
+     */
+    private List<String> pageTexts;
+
+    /**
+     * Approximate heap footprint of the extracted text in bytes
+     */
+    public long estimateTextSizeBytes() {
+        long chars = text == null ? 0 : text.length();
+        if (pageTexts != null) {
+            for (String pageText : pageTexts) {
+                chars += pageText.length();
+            }
+        }
+        return chars * Character.BYTES;
+    }
+
+    /**
+     * Get text of a single page (1-based)
+     */
+    public String getPageText(int pageNumber) {
+        return pageTexts.get(pageNumber - 1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Model for the raw answer of one LLM provider call
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class LLMCompletion {
+
+    /**
+     * Name of the backend that answered
+     */
+    private String provider;
+
+    /**
+     * Model the backend answered with
+     */
+    private String model;
+
+    /**
+     * Text content of the completion
+     */
+    private String content;
+
+    /**
+     * Prompt tokens reported by the provider, including cached tokens. A
+     * stream cut before the provider reported usage carries the local
+     * estimate instead.
+     */
+    private Integer promptTokens;
+
+    /**
+     * Prompt tokens the provider served from its prompt cache, null if unknown
+     */
+    private Integer cachedPromptTokens;
+}
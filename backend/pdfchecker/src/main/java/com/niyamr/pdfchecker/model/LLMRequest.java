@@ -50,4 +50,20 @@ public class LLMRequest {
      * User prompt for the LLM
      */
     private String userPrompt;
+    
+    /**
+     * Rule-independent start of the user prompt (the document), kept
+     * separate so providers can cache it
+     */
+    private String documentPrompt;
+    
+    /**
+     * Rule-specific end of the user prompt
+     */
+    private String rulePrompt;
+    
+    /**
+     * Locally estimated tokens of the system and user prompts
+     */
+    private Integer estimatedPromptTokens;
 }
\ No newline at end of file
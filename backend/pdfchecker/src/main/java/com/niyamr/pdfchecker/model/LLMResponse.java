@@ -44,6 +44,16 @@ public class LLMResponse {
      */
     private String error;
     
+    /**
+     * Prompt tokens reported by the provider, including cached tokens
+     */
+    private Integer promptTokens;
+    
+    /**
+     * Prompt tokens the provider served from its prompt cache
+     */
+    private Integer cachedPromptTokens;
+    
     /**
      * Check if response is valid
      */
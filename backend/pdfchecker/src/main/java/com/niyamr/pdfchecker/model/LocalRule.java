@@ -0,0 +1,44 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Domain model for a rule that can be checked by matching the extracted
+ * text, without asking the LLM
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocalRule {
+
+    /**
+     * What the rule looks for
+     */
+    public enum Kind {
+        /** A quoted phrase */
+        PHRASE,
+        /** Any calendar date */
+        DATE,
+        /** A signature line */
+        SIGNATURE
+    }
+
+    /**
+     * What the rule looks for
+     */
+    private Kind kind;
+
+    /**
+     * Phrase to find, for PHRASE rules
+     */
+    private String phrase;
+
+    /**
+     * True if the rule requires the phrase to be absent
+     */
+    private boolean negated;
+}
@@ -0,0 +1,58 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Model for an uploaded PDF that has been streamed to a local temp file.
+ * Closing the upload deletes the file.
+ */
+@Slf4j
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PdfUpload implements AutoCloseable {
+
+    /**
+     * Original file name of the upload
+     */
+    private String fileName;
+
+    /**
+     * Temp file holding the PDF bytes
+     */
+    private Path path;
+
+    /**
+     * Size of the PDF in bytes
+     */
+    private long size;
+
+    /**
+     * SHA-256 of the PDF bytes, as lowercase hex
+     */
+    private String contentHash;
+
+    /**
+     * Delete the temp file
+     */
+    @Override
+    public void close() {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temp upload {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -11,7 +11,7 @@ import java.io.Serializable;
  * Domain model representing the result of a single rule check
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class RuleResult implements Serializable {
@@ -43,6 +43,26 @@ public class RuleResult implements Serializable {
      */
     private Integer confidence;
     
+    /**
+     * Where the verdict came from: LLM or LOCAL
+     */
+    private String source;
+    
+    /**
+     * Offset of the evidence in the extracted text, for local verdicts
+     */
+    private Integer evidenceStart;
+    
+    /**
+     * Offset after the evidence in the extracted text, for local verdicts
+     */
+    private Integer evidenceEnd;
+    
+    /**
+     * Page the evidence was found on (1-based), for local verdicts
+     */
+    private Integer evidencePage;
+    
     /**
      * Check if the rule passed
      */
@@ -0,0 +1,44 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Domain model for one version of a named, saved rule list
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedRuleSet {
+
+    /**
+     * Rule set identifier, shared by all versions
+     */
+    private String id;
+
+    /**
+     * Display name
+     */
+    private String name;
+
+    /**
+     * Version number, starting at 1
+     */
+    private int version;
+
+    /**
+     * Validated, whitespace-normalised rules in order
+     */
+    private List<String> rules;
+
+    /**
+     * When this version was saved
+     */
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.niyamr.pdfchecker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Token allocation for one LLM request within the model's context window
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenBudget {
+
+    /**
+     * Context window of the model
+     */
+    private int contextWindow;
+
+    /**
+     * Estimated tokens of the system prompt and prompt template
+     */
+    private int fixedTokens;
+
+    /**
+     * Tokens reserved for the completion (sent as max_tokens)
+     */
+    private int outputTokens;
+
+    /**
+     * Tokens available for document text
+     */
+    private int documentTokens;
+}
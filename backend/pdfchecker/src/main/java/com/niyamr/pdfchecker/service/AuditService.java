@@ -0,0 +1,45 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import com.niyamr.pdfchecker.model.BatchAudit;
+import com.niyamr.pdfchecker.model.PdfUpload;
+
+import java.util.List;
+
+/**
+ * Service interface for offline audits: rule checks of many documents
+ * collected into one provider batch, for when cost and throughput matter
+ * more than latency
+ */
+public interface AuditService {
+
+    /**
+     * Queue an audit. The documents are extracted and their rule checks
+     * sent as one batch in the background; the batch is then polled until
+     * the provider has answered. The audit takes ownership of the uploads
+     * and closes them once extracted.
+     *
+     * @param uploads Stored PDF uploads
+     * @param rules Validated rules to check every document against
+     * @return Newly queued audit
+     * @throws com.niyamr.pdfchecker.exception.JobQueueFullException if no worker can take the audit
+     */
+    BatchAudit submit(List<PdfUpload> uploads, List<String> rules);
+
+    /**
+     * Get the current state of an audit
+     *
+     * @param auditId Audit identifier
+     * @return Audit snapshot
+     * @throws com.niyamr.pdfchecker.exception.JobNotFoundException if the audit is unknown
+     */
+    BatchAudit getAudit(String auditId);
+
+    /**
+     * Get the check response of every document of a completed audit
+     *
+     * @param audit Completed audit
+     * @return One response per document, in submission order
+     */
+    List<CheckResponse> getResults(BatchAudit audit);
+}
@@ -0,0 +1,72 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.BatchResult;
+import com.niyamr.pdfchecker.model.LLMRequest;
+
+import java.util.List;
+
+/**
+ * SPI for a provider's asynchronous Batch API. Batches are billed at a
+ * discount and answered within hours, which suits offline audits; they
+ * bypass the interactive routing, rate limiting and hedging.
+ */
+public interface BatchLLMProvider {
+
+    /**
+     * Provider state of a batch
+     */
+    enum State {
+        /** Still queued or processing */
+        IN_PROGRESS,
+        /** Finished, expired or cancelled; results are available for what ran */
+        ENDED,
+        /** Rejected as a whole, with no results */
+        FAILED
+    }
+
+    /**
+     * Provider name from configuration
+     */
+    String getName();
+
+    /**
+     * Model a request is sent with in a batch
+     */
+    String modelFor(LLMRequest request);
+
+    /**
+     * Serialise one request as a line of the provider's batch input
+     *
+     * @param customId Id the result will carry, [a-zA-Z0-9_-] only
+     * @param request Prepared LLM request
+     * @return One JSON line
+     */
+    String toRequestLine(String customId, LLMRequest request);
+
+    /**
+     * Submit request lines as one batch
+     *
+     * @param requestLines Lines built by {@link #toRequestLine(String, LLMRequest)}
+     * @return Provider's batch id
+     * @throws com.niyamr.pdfchecker.exception.LLMServiceException if the provider rejects the batch
+     */
+    String submit(List<String> requestLines);
+
+    /**
+     * Get the state of a submitted batch
+     *
+     * @param batchId Provider's batch id
+     * @return Batch state
+     * @throws com.niyamr.pdfchecker.exception.LLMServiceException if the provider cannot be reached
+     */
+    State getState(String batchId);
+
+    /**
+     * Download the results of an ended batch
+     *
+     * @param batchId Provider's batch id
+     * @return One result per request that ran, in no particular order
+     * @throws com.niyamr.pdfchecker.exception.LLMServiceException if the download fails
+     */
+    List<BatchResult> getResults(String batchId);
+}
@@ -0,0 +1,25 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.PdfUpload;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Service interface for checking many documents against one rule list
+ */
+public interface BulkCheckService {
+
+    /**
+     * Start a pipelined bulk check in the background and stream a
+     * "document" event per finished document, in completion order, then a
+     * "complete" event with a summary. The check takes ownership of the
+     * uploads and closes each one when it is done.
+     *
+     * @param uploads Stored PDF uploads
+     * @param rules Validated rules to check
+     * @return Emitter to return from the controller
+     * @throws com.niyamr.pdfchecker.exception.JobQueueFullException if no worker can take the check
+     */
+    SseEmitter stream(List<PdfUpload> uploads, List<String> rules);
+}
@@ -0,0 +1,32 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.CheckJob;
+import com.niyamr.pdfchecker.model.PdfUpload;
+
+import java.util.List;
+
+/**
+ * Service interface for asynchronous check jobs
+ */
+public interface CheckJobService {
+
+    /**
+     * Queue a check of a stored upload. The job takes ownership of the upload
+     * and closes it when done.
+     *
+     * @param upload Stored PDF upload
+     * @param rules Validated rules to check
+     * @return Newly queued job
+     * @throws com.niyamr.pdfchecker.exception.JobQueueFullException if the queue is full
+     */
+    CheckJob submit(PdfUpload upload, List<String> rules);
+
+    /**
+     * Get the current state of a job
+     *
+     * @param jobId Job identifier
+     * @return Job snapshot
+     * @throws com.niyamr.pdfchecker.exception.JobNotFoundException if the job is unknown or expired
+     */
+    CheckJob getJob(String jobId);
+}
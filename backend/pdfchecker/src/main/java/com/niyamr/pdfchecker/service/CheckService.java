@@ -0,0 +1,45 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.PdfUpload;
+
+import java.util.List;
+
+/**
+ * Service interface for running a full document check
+ */
+public interface CheckService {
+
+    /**
+     * Extract the stored upload and check it against the rules
+     *
+     * @param upload Stored PDF upload (not closed by this method)
+     * @param rules Validated rules to check
+     * @return Check response with results and overall status
+     */
+    CheckResponse check(PdfUpload upload, List<String> rules);
+
+    /**
+     * Extract the stored upload and check it against the rules, reporting
+     * each rule result to the listener as soon as it is ready
+     *
+     * @param upload Stored PDF upload (not closed by this method)
+     * @param rules Validated rules to check
+     * @param listener Callback for each finished rule
+     * @return Check response with results and overall status
+     */
+    CheckResponse check(PdfUpload upload, List<String> rules, RuleResultListener listener);
+
+    /**
+     * Check an already extracted document against the rules
+     *
+     * @param document Extracted PDF document
+     * @param rules Validated rules to check
+     * @param listener Callback for each finished rule
+     * @param startTimeMillis When processing of the document started, for the reported time
+     * @return Check response with results and overall status
+     */
+    CheckResponse check(ExtractedDocument document, List<String> rules, RuleResultListener listener,
+                        long startTimeMillis);
+}
@@ -0,0 +1,24 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.PdfUpload;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Service interface for checks that stream results as Server-Sent Events
+ */
+public interface CheckStreamService {
+
+    /**
+     * Start a check in the background and stream a "rule" event per finished
+     * rule, then a "complete" event with the full check response. The stream
+     * takes ownership of the upload and closes it when done.
+     *
+     * @param upload Stored PDF upload
+     * @param rules Validated rules to check
+     * @return Emitter to return from the controller
+     * @throws com.niyamr.pdfchecker.exception.JobQueueFullException if no worker can take the check
+     */
+    SseEmitter stream(PdfUpload upload, List<String> rules);
+}
@@ -0,0 +1,28 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.util.DocumentIndex;
+
+/**
+ * Service interface for selecting the parts of a document relevant to a rule
+ */
+public interface ContextRetrievalService {
+
+    /**
+     * Chunk and index a document once so it can be queried per rule
+     *
+     * @param document Extracted PDF document
+     * @return Lexical index over the document chunks
+     */
+    DocumentIndex buildIndex(ExtractedDocument document);
+
+    /**
+     * Select the best matching chunks for a query within the context budget.
+     * Documents that already fit the budget are returned whole.
+     *
+     * @param index Index built by {@link #buildIndex(ExtractedDocument)}
+     * @param query Rule text, or several rules joined for a batch check
+     * @return Document text to send to the LLM
+     */
+    String selectContext(DocumentIndex index, String query);
+}
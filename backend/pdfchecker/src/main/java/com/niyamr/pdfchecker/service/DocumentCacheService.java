@@ -0,0 +1,30 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.CacheStats;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+
+/**
+ * Service interface for caching extracted documents by PDF content digest
+ */
+public interface DocumentCacheService {
+
+    /**
+     * Look up an extracted document
+     *
+     * @param contentHash SHA-256 of the PDF bytes
+     * @return Cached document, or null if not cached
+     */
+    ExtractedDocument get(String contentHash);
+
+    /**
+     * Store an extracted document under its content hash
+     *
+     * @param document Extracted document with contentHash set
+     */
+    void put(ExtractedDocument document);
+
+    /**
+     * Get hit/miss statistics
+     */
+    CacheStats getStats();
+}
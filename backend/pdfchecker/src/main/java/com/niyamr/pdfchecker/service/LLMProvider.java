@@ -0,0 +1,43 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.util.TokenBucketRateLimiter;
+
+/**
+ * SPI for one configured LLM backend. Implementations translate an
+ * {@link LLMRequest} into a provider's wire format; routing, retries and
+ * hedging are handled by {@link LLMRouter}.
+ */
+public interface LLMProvider {
+
+    /**
+     * Unique backend name from configuration
+     */
+    String getName();
+
+    /**
+     * Relative share of traffic the backend should receive
+     */
+    int getWeight();
+
+    /**
+     * Model a request is sent with on this backend
+     */
+    String modelFor(LLMRequest request);
+
+    /**
+     * Client-side rate limiter for this backend's quota
+     */
+    TokenBucketRateLimiter getRateLimiter();
+
+    /**
+     * Send one request to the backend
+     *
+     * @param request Prepared LLM request
+     * @return Completion text and token usage
+     * @throws com.niyamr.pdfchecker.exception.LLMServiceException if the call fails,
+     *         with the underlying HTTP or I/O exception as cause
+     */
+    LLMCompletion complete(LLMRequest request);
+}
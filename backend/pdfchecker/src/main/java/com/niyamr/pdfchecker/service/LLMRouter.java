@@ -0,0 +1,37 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.BackendStatus;
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+
+import java.util.List;
+
+/**
+ * Service interface for dispatching LLM requests across the configured backends
+ */
+public interface LLMRouter {
+
+    /**
+     * Send a request to a backend chosen by weight, failing over to the other
+     * backends on retryable errors and optionally hedging slow calls
+     *
+     * @param request Prepared LLM request
+     * @return Completion from the first backend that answered
+     * @throws com.niyamr.pdfchecker.exception.LLMServiceException if every attempt fails
+     */
+    LLMCompletion complete(LLMRequest request);
+
+    /**
+     * Distinct models the request may be answered with, one per backend
+     * override; verdicts are cached under the model that answered
+     *
+     * @param request Request carrying the configured model
+     * @return Models in backend order
+     */
+    List<String> modelsFor(LLMRequest request);
+
+    /**
+     * Circuit breaker and bulkhead state of every backend
+     */
+    List<BackendStatus> getBackendStatus();
+}
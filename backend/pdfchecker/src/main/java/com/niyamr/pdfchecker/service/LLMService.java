@@ -4,6 +4,8 @@ import com.niyamr.pdfchecker.model.LLMResponse;
 
 import com.niyamr.pdfchecker.model.LLMRequest;
 
+import java.util.List;
+
 /**
  * Service interface for LLM operations
  */
@@ -19,6 +21,36 @@ public interface LLMService {
      */
     LLMResponse checkRule(String documentText, String rule);
     
+    /**
+     * Check several rules against document text in a single LLM call.
+     * Rules whose entry is missing or malformed in the batch answer get a
+     * null slot, so the caller can check them individually and concurrently.
+     * 
+     * @param documentText Extracted text from PDF
+     * @param rules Rules to check
+     * @return LLM responses in the same order as the given rules, null where
+     *         the batch answer had no valid verdict
+     */
+    List<LLMResponse> checkRules(String documentText, List<String> rules);
+    
+    /**
+     * Models a rule check may be answered with. Verdicts are cached under
+     * the model that answered them, so these are the models to look up.
+     * 
+     * @return Distinct model names
+     */
+    List<String> getAnsweringModels();
+    
+    /**
+     * Look up a verdict cached under any of the given models
+     * 
+     * @param documentText Text the rule is checked against
+     * @param rule Rule to check
+     * @param models Models whose verdicts are acceptable
+     * @return Cached response, or null if none of the models has one
+     */
+    LLMResponse getCachedVerdict(String documentText, String rule, List<String> models);
+    
     /**
      * Build LLM request object
      * 
@@ -0,0 +1,24 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.CompiledRuleSet;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.RuleResult;
+
+import java.util.List;
+
+/**
+ * Service interface for deciding mechanical rules by matching the
+ * extracted text, before any LLM call
+ */
+public interface LocalRuleService {
+
+    /**
+     * Check all representatives that can be decided locally, in one pass
+     * over the text
+     *
+     * @param document Extracted PDF document
+     * @param ruleSet Compiled rule set
+     * @return Results indexed like the representatives; null where the rule needs the LLM
+     */
+    List<RuleResult> evaluate(ExtractedDocument document, CompiledRuleSet ruleSet);
+}
@@ -1,5 +1,7 @@
 package com.niyamr.pdfchecker.service;
 
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.PdfUpload;
 import org.springframework.web.multipart.MultipartFile;
 
 /**
@@ -7,6 +9,33 @@ import org.springframework.web.multipart.MultipartFile;
  */
 public interface PdfService {
     
+    /**
+     * Validate the upload and stream it to a local temp file, hashing it on the way
+     * 
+     * @param file MultipartFile containing the PDF
+     * @return Stored upload; the caller must close it to delete the temp file
+     * @throws com.niyamr.pdfchecker.com.niyamr.pdfchecker.exception.PdfProcessingException if the upload cannot be stored
+     */
+    PdfUpload storeUpload(MultipartFile file);
+    
+    /**
+     * Parse a stored upload once and extract its text, page count and per-page text
+     * 
+     * @param upload Stored PDF upload
+     * @return Extracted document
+     * @throws com.niyamr.pdfchecker.com.niyamr.pdfchecker.exception.PdfProcessingException if extraction fails
+     */
+    ExtractedDocument extractDocument(PdfUpload upload);
+    
+    /**
+     * Parse the PDF once and extract its text, page count and per-page text
+     * 
+     * @param file MultipartFile containing the PDF
+     * @return Extracted document
+     * @throws com.niyamr.pdfchecker.com.niyamr.pdfchecker.exception.PdfProcessingException if extraction fails
+     */
+    ExtractedDocument extractDocument(MultipartFile file);
+    
     /**
      * Extract text from PDF file
      * 
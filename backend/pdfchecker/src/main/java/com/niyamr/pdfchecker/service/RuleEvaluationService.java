@@ -0,0 +1,32 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.RuleResult;
+
+import java.util.List;
+
+/**
+ * Service interface for evaluating a set of rules against a document
+ */
+public interface RuleEvaluationService {
+
+    /**
+     * Evaluate all rules against the document concurrently
+     *
+     * @param document Extracted PDF document
+     * @param rules Rules to check
+     * @return Rule results in the same order as the given rules
+     */
+    List<RuleResult> evaluateRules(ExtractedDocument document, List<String> rules);
+
+    /**
+     * Evaluate all rules against the document concurrently, reporting each
+     * result to the listener as soon as it is ready
+     *
+     * @param document Extracted PDF document
+     * @param rules Rules to check
+     * @param listener Callback for each finished rule
+     * @return Rule results in the same order as the given rules
+     */
+    List<RuleResult> evaluateRules(ExtractedDocument document, List<String> rules, RuleResultListener listener);
+}
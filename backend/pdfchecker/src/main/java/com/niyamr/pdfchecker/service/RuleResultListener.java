@@ -0,0 +1,24 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.RuleResult;
+
+/**
+ * Callback for rule results as soon as each one is available. May be
+ * invoked concurrently from evaluation threads and in any rule order.
+ */
+@FunctionalInterface
+public interface RuleResultListener {
+
+    /**
+     * Listener that ignores all results
+     */
+    RuleResultListener NONE = (index, result) -> { };
+
+    /**
+     * Called once per rule when its result is ready
+     *
+     * @param index Position of the rule in the request
+     * @param result Rule result
+     */
+    void onResult(int index, RuleResult result);
+}
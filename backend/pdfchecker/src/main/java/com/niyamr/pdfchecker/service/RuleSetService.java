@@ -0,0 +1,20 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.CompiledRuleSet;
+
+import java.util.List;
+
+/**
+ * Service interface for compiling rule lists into deduplicated rule sets
+ */
+public interface RuleSetService {
+
+    /**
+     * Group near-duplicate rules. Compiled sets are cached, so a rule list
+     * that was seen before is not compiled again.
+     *
+     * @param rules Validated rules in submission order
+     * @return Compiled rule set
+     */
+    CompiledRuleSet compile(List<String> rules);
+}
@@ -0,0 +1,59 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.SavedRuleSet;
+
+import java.util.List;
+
+/**
+ * Service interface for named, versioned rule sets that checks can
+ * reference instead of sending their rules
+ */
+public interface SavedRuleSetService {
+
+    /**
+     * Validate and save a new rule set as version 1
+     *
+     * @param name Display name
+     * @param rules Rules to save
+     * @return Saved rule set
+     * @throws com.niyamr.pdfchecker.exception.ValidationException if the name or rules are invalid
+     */
+    SavedRuleSet create(String name, List<String> rules);
+
+    /**
+     * Validate and save the next version of a rule set
+     *
+     * @param id Rule set identifier
+     * @param name Display name, or null to keep the current one
+     * @param rules Rules of the new version
+     * @return Saved version
+     * @throws com.niyamr.pdfchecker.exception.RuleSetNotFoundException if the rule set does not exist
+     */
+    SavedRuleSet update(String id, String name, List<String> rules);
+
+    /**
+     * Get a rule set version
+     *
+     * @param id Rule set identifier
+     * @param version Version number, or null for the latest
+     * @return Rule set version
+     * @throws com.niyamr.pdfchecker.exception.RuleSetNotFoundException if it does not exist
+     */
+    SavedRuleSet get(String id, Integer version);
+
+    /**
+     * Latest version of every rule set
+     */
+    List<SavedRuleSet> list();
+
+    /**
+     * Rules for a check: the given rules, or those of the referenced rule set
+     *
+     * @param rules Rules sent with the check, may be null
+     * @param ruleSetId Referenced rule set, may be null
+     * @param version Referenced version, or null for the latest
+     * @return Rules to check, empty if neither was given
+     * @throws com.niyamr.pdfchecker.exception.ValidationException if both rules and a rule set are given
+     */
+    List<String> resolveRules(List<String> rules, String ruleSetId, Integer version);
+}
@@ -0,0 +1,43 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.TokenBudget;
+
+/**
+ * Service interface for sizing prompts against the context window of the
+ * models requests may be routed to, using a local token estimate
+ */
+public interface TokenBudgetService {
+
+    /**
+     * Estimate tokens for the configured models
+     *
+     * @param text Text to measure
+     * @return Estimated token count
+     */
+    int estimateTokens(String text);
+
+    /**
+     * Most document tokens a single request may carry, before the prompt
+     * around it is known. Used to size retrieved context.
+     */
+    int getDocumentTokenLimit();
+
+    /**
+     * Split the context window between fixed prompt text, the expected
+     * output and the document
+     *
+     * @param fixedPrompt System prompt plus user prompt without the document
+     * @param requestedOutputTokens Desired completion size
+     * @return Token budget; output is shrunk if the window is too small
+     */
+    TokenBudget plan(String fixedPrompt, int requestedOutputTokens);
+
+    /**
+     * Cut text to fit the token budget, marking the cut
+     *
+     * @param text Document text
+     * @param maxTokens Budget for the text
+     * @return Text unchanged if it fits, otherwise a truncated prefix
+     */
+    String fitToTokens(String text, int maxTokens);
+}
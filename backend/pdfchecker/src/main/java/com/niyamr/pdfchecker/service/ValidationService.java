@@ -1,6 +1,7 @@
 package com.niyamr.pdfchecker.service;
 
 import com.niyamr.pdfchecker.dto.CheckRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -17,6 +18,16 @@ public interface ValidationService {
      */
     void validateRequest(CheckRequest request);
     
+    /**
+     * Validate a bulk check: the rules once and every file
+     * 
+     * @param files PDF files to check
+     * @param rules Rules to check each file against
+     * @param maxFiles Maximum number of files
+     * @throws com.niyamr.pdfchecker.exception.ValidationException if validation fails
+     */
+    void validateBulkRequest(List<MultipartFile> files, List<String> rules, int maxFiles);
+    
     /**
      * Validate rules list
      * 
@@ -0,0 +1,53 @@
+package com.niyamr.pdfchecker.service;
+
+import com.niyamr.pdfchecker.model.CacheStats;
+import com.niyamr.pdfchecker.model.LLMResponse;
+
+import java.util.List;
+
+/**
+ * Service interface for caching LLM rule verdicts by content
+ */
+public interface VerdictCacheService {
+
+    /**
+     * Build the cache key for a rule check
+     *
+     * @param documentText Text sent to the LLM
+     * @param rule Rule to check
+     * @param model LLM model
+     * @param temperature Sampling temperature
+     * @return SHA-256 based cache key
+     */
+    String buildKey(String documentText, String rule, String model, Double temperature);
+
+    /**
+     * Look up a cached verdict
+     *
+     * @param key Cache key
+     * @return Cached response, or null if not cached
+     */
+    LLMResponse get(String key);
+
+    /**
+     * Look up the first cached verdict among equivalent keys. The lookup
+     * counts as one hit or one miss however many keys it tries.
+     *
+     * @param keys Cache keys in order of preference
+     * @return Cached response, or null if none is cached
+     */
+    LLMResponse getAny(List<String> keys);
+
+    /**
+     * Store a verdict. Error responses are not cached.
+     *
+     * @param key Cache key
+     * @param response LLM response to cache
+     */
+    void put(String key, LLMResponse response);
+
+    /**
+     * Get hit/miss statistics
+     */
+    CacheStats getStats();
+}
@@ -0,0 +1,123 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niyamr.pdfchecker.exception.LLMServiceException;
+import com.niyamr.pdfchecker.model.BatchResult;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.service.BatchLLMProvider;
+import com.niyamr.pdfchecker.util.JsonUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.Strings;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base class for batch APIs reached over HTTP with the shared pooled
+ * client. Result files are read line by line instead of into one string,
+ * since a large audit produces tens of megabytes of JSONL.
+ */
+public abstract class AbstractHttpBatchProvider implements BatchLLMProvider {
+
+    protected final ObjectMapper objectMapper = JsonUtils.MAPPER;
+
+    protected final String baseUrl;
+    protected final String apiKey;
+
+    private final String name;
+    private final String model;
+    private final RestTemplate restTemplate;
+
+    protected AbstractHttpBatchProvider(String name, String baseUrl, String apiKey, String model,
+                                        RestTemplate restTemplate) {
+        this.name = name;
+        this.baseUrl = Strings.CS.removeEnd(baseUrl, "/");
+        this.apiKey = apiKey;
+        this.model = model;
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String modelFor(LLMRequest request) {
+        return StringUtils.isNotBlank(model) ? model : request.getModel();
+    }
+
+    /**
+     * Authentication and version headers for every call
+     */
+    protected abstract HttpHeaders headers();
+
+    /**
+     * Parse one line of a result file, or return null to skip it
+     */
+    protected abstract BatchResult parseResultLine(JsonNode line);
+
+    /**
+     * Send a request and parse the JSON answer
+     */
+    protected JsonNode exchange(HttpMethod method, String url, Object body, HttpHeaders headers) {
+        try {
+            String response = restTemplate.exchange(url, method, new HttpEntity<>(body, headers), String.class)
+                    .getBody();
+            return objectMapper.readTree(StringUtils.defaultIfEmpty(response, "{}"));
+        } catch (RestClientException | JsonProcessingException e) {
+            throw new LLMServiceException("Batch API call failed: " + method + " " + url, e);
+        }
+    }
+
+    /**
+     * Stream a JSONL result file and parse it line by line
+     */
+    protected List<BatchResult> readResults(String url) {
+        HttpHeaders headers = headers();
+        try {
+            return restTemplate.execute(url, HttpMethod.GET,
+                    request -> request.getHeaders().putAll(headers),
+                    response -> {
+                        List<BatchResult> results = new ArrayList<>();
+                        BufferedReader reader = new BufferedReader(
+                                new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (line.isBlank()) {
+                                continue;
+                            }
+                            BatchResult result = parseResultLine(objectMapper.readTree(line));
+                            if (result != null) {
+                                results.add(result);
+                            }
+                        }
+                        return results;
+                    });
+        } catch (RestClientException e) {
+            throw new LLMServiceException("Failed to download batch results: " + url, e);
+        }
+    }
+
+    /**
+     * Serialise a request line
+     */
+    protected String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize batch request", e);
+        }
+    }
+}
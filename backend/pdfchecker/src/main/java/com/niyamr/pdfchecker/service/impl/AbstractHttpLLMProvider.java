@@ -0,0 +1,201 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niyamr.pdfchecker.config.LlmRoutingProperties;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.service.LLMProvider;
+import com.niyamr.pdfchecker.util.JsonUtils;
+import com.niyamr.pdfchecker.util.RateLimitHeaders;
+import com.niyamr.pdfchecker.util.TokenBucketRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.core5.http.io.EofSensorInputStream;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Base class for LLM backends reached over HTTP with the shared pooled
+ * client. Rate limit headers of every response, including errors, are fed
+ * into the backend's limiter.
+ */
+@Slf4j
+public abstract class AbstractHttpLLMProvider implements LLMProvider {
+
+    /**
+     * Receives the data payload of each server-sent event
+     */
+    @FunctionalInterface
+    protected interface StreamEventHandler {
+
+        /**
+         * @return true once no further events are needed
+         */
+        boolean onEvent(String data) throws IOException;
+    }
+
+    protected final ObjectMapper objectMapper = JsonUtils.MAPPER;
+
+    protected final String apiUrl;
+    protected final String apiKey;
+    protected final boolean streaming;
+
+    private final String name;
+    private final String model;
+    private final int weight;
+    private final RestTemplate restTemplate;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AtomicBoolean abortUnsupportedLogged = new AtomicBoolean();
+
+    protected AbstractHttpLLMProvider(LlmRoutingProperties.Backend backend, RestTemplate restTemplate,
+                                      boolean streaming) {
+        this.name = backend.getName();
+        this.apiUrl = backend.getApiUrl();
+        this.apiKey = backend.getApiKey();
+        this.model = backend.getModel();
+        this.weight = backend.getWeight();
+        this.streaming = streaming;
+        this.restTemplate = restTemplate;
+        this.rateLimiter = new TokenBucketRateLimiter(backend.getRequestsPerMinute(), backend.getTokensPerMinute());
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public TokenBucketRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Model to send: the backend's override, else the request's model
+     */
+    @Override
+    public String modelFor(LLMRequest request) {
+        return StringUtils.isNotBlank(model) ? model : request.getModel();
+    }
+
+    /**
+     * POST a JSON body to the backend
+     */
+    protected ResponseEntity<String> post(HttpHeaders headers, Map<String, Object> body) {
+        ResponseEntity<String> response;
+        try {
+            response = restTemplate.exchange(apiUrl, HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+        } catch (RestClientResponseException e) {
+            onErrorResponse(e);
+            throw e;
+        }
+        observeRateLimits(response.getHeaders());
+        return response;
+    }
+
+    /**
+     * POST a JSON body that asks for a streamed answer and pass each
+     * server-sent event to the handler. When the handler has what it needs
+     * the connection is aborted, so the provider stops generating instead
+     * of the rest of the stream being drained.
+     */
+    protected void postStreaming(HttpHeaders headers, Map<String, Object> body, StreamEventHandler handler) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize LLM request", e);
+        }
+
+        try {
+            restTemplate.execute(apiUrl, HttpMethod.POST,
+                    request -> {
+                        request.getHeaders().putAll(headers);
+                        request.getHeaders().setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+                        request.getBody().write(payload);
+                    },
+                    response -> {
+                        observeRateLimits(response.getHeaders());
+                        readEvents(response.getBody(), handler);
+                        return null;
+                    });
+        } catch (RestClientResponseException e) {
+            onErrorResponse(e);
+            throw e;
+        }
+    }
+
+    protected Integer intOrNull(JsonNode node) {
+        return node.isNumber() ? node.asInt() : null;
+    }
+
+    private void readEvents(InputStream body, StreamEventHandler handler) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.startsWith("data:")) {
+                continue;
+            }
+            String data = line.substring("data:".length()).trim();
+            if ("[DONE]".equals(data)) {
+                return;
+            }
+            if (handler.onEvent(data)) {
+                abort(body);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Drop the connection so the provider stops generating. Only the entity
+     * stream of the pooled Apache client can be aborted; any other body is
+     * drained to the end when RestTemplate closes the response.
+     */
+    private void abort(InputStream body) throws IOException {
+        if (body instanceof EofSensorInputStream stream) {
+            stream.abort();
+        } else if (abortUnsupportedLogged.compareAndSet(false, true)) {
+            log.warn("LLM backend {} streams through {}, which cannot be aborted; "
+                    + "the rest of each stream is drained", name, body.getClass().getName());
+        }
+    }
+
+    private void onErrorResponse(RestClientResponseException e) {
+        observeRateLimits(e.getResponseHeaders());
+        // Hold back every caller of this backend for as long as it asked
+        Duration retryAfter = RateLimitHeaders.retryAfter(e.getResponseHeaders());
+        if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value() && retryAfter != null) {
+            rateLimiter.pause(retryAfter);
+        }
+    }
+
+    private void observeRateLimits(HttpHeaders headers) {
+        if (headers == null) {
+            return;
+        }
+        rateLimiter.observe(
+                RateLimitHeaders.remainingRequests(headers), RateLimitHeaders.requestsReset(headers),
+                RateLimitHeaders.remainingTokens(headers), RateLimitHeaders.tokensReset(headers));
+    }
+}
@@ -0,0 +1,144 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.niyamr.pdfchecker.exception.LLMServiceException;
+import com.niyamr.pdfchecker.model.BatchResult;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch backend for the Anthropic Message Batches API. Requests are sent
+ * inline in one call. With prompt caching enabled the document is marked
+ * as a cache breakpoint, so the rule checks of one document in the batch
+ * can share it.
+ */
+@Slf4j
+public class AnthropicBatchProvider extends AbstractHttpBatchProvider {
+
+    private final boolean promptCacheEnabled;
+
+    public AnthropicBatchProvider(String name, String baseUrl, String apiKey, String model,
+                                  boolean promptCacheEnabled, RestTemplate restTemplate) {
+        super(name, baseUrl, apiKey, model, restTemplate);
+        this.promptCacheEnabled = promptCacheEnabled;
+    }
+
+    @Override
+    public String toRequestLine(String customId, LLMRequest request) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("model", modelFor(request));
+        params.put("max_tokens", request.getMaxTokens());
+        params.put("temperature", request.getTemperature());
+        if (promptCacheEnabled && request.getDocumentPrompt() != null) {
+            params.put("system", List.of(cachedTextBlock(request.getSystemPrompt())));
+            params.put("messages", List.of(
+                Map.of("role", "user", "content", List.of(
+                    cachedTextBlock(request.getDocumentPrompt()),
+                    textBlock(request.getRulePrompt())
+                ))
+            ));
+        } else {
+            params.put("system", request.getSystemPrompt());
+            params.put("messages", List.of(
+                Map.of("role", "user", "content", request.getUserPrompt())
+            ));
+        }
+
+        return toJson(Map.of("custom_id", customId, "params", params));
+    }
+
+    @Override
+    public String submit(List<String> requestLines) {
+        // The lines are already JSON; splice them instead of parsing them back
+        String body = "{\"requests\":[" + String.join(",", requestLines) + "]}";
+
+        HttpHeaders headers = headers();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String batchId = exchange(HttpMethod.POST, baseUrl + "/messages/batches", body, headers)
+                .path("id").asText();
+        if (batchId.isEmpty()) {
+            throw new LLMServiceException("Batch creation returned no batch id");
+        }
+
+        log.info("Submitted batch {} with {} requests to {}", batchId, requestLines.size(), getName());
+        return batchId;
+    }
+
+    @Override
+    public State getState(String batchId) {
+        // Anthropic batches never fail as a whole; failed requests show up per result
+        return "ended".equals(getBatch(batchId).path("processing_status").asText())
+                ? State.ENDED
+                : State.IN_PROGRESS;
+    }
+
+    @Override
+    public List<BatchResult> getResults(String batchId) {
+        String resultsUrl = getBatch(batchId).path("results_url").asText();
+        if (resultsUrl.isEmpty() || "null".equals(resultsUrl)) {
+            throw new LLMServiceException("Batch " + batchId + " has no results yet");
+        }
+        return readResults(resultsUrl);
+    }
+
+    @Override
+    protected HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("x-api-key", apiKey);
+        headers.set("anthropic-version", "2023-06-01");
+        return headers;
+    }
+
+    @Override
+    protected BatchResult parseResultLine(JsonNode line) {
+        String customId = line.path("custom_id").asText();
+        if (customId.isEmpty()) {
+            return null;
+        }
+
+        JsonNode result = line.path("result");
+        String type = result.path("type").asText();
+        if ("succeeded".equals(type)) {
+            JsonNode text = result.path("message").path("content").path(0).path("text");
+            if (text.isTextual()) {
+                return BatchResult.builder().customId(customId).content(text.asText()).build();
+            }
+        }
+
+        String error = "errored".equals(type)
+                ? result.path("error").path("error").path("message").asText("Request errored")
+                : "Request " + type;
+        return BatchResult.builder().customId(customId).error(error).build();
+    }
+
+    private JsonNode getBatch(String batchId) {
+        return exchange(HttpMethod.GET, baseUrl + "/messages/batches/" + batchId, null, headers());
+    }
+
+    /**
+     * Text content block
+     */
+    private Map<String, Object> textBlock(String text) {
+        Map<String, Object> block = new HashMap<>();
+        block.put("type", "text");
+        block.put("text", text);
+        return block;
+    }
+
+    /**
+     * Text content block marked as a prompt cache breakpoint
+     */
+    private Map<String, Object> cachedTextBlock(String text) {
+        Map<String, Object> block = textBlock(text);
+        block.put("cache_control", Map.of("type", "ephemeral"));
+        return block;
+    }
+}
@@ -0,0 +1,152 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.niyamr.pdfchecker.config.LlmRoutingProperties;
+import com.niyamr.pdfchecker.exception.LLMServiceException;
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.util.JsonObjectAccumulator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend for the Anthropic messages API. With prompt caching enabled, the
+ * system prompt and the document are marked as cache breakpoints so later
+ * rule checks on the same document read them from the provider's cache.
+ * In streaming mode the answer is read delta by delta and the stream is
+ * cut once the verdict JSON is closed.
+ */
+@Slf4j
+public class AnthropicProvider extends AbstractHttpLLMProvider {
+
+    private final boolean promptCacheEnabled;
+
+    public AnthropicProvider(LlmRoutingProperties.Backend backend, RestTemplate restTemplate,
+                             boolean streaming, boolean promptCacheEnabled) {
+        super(backend, restTemplate, streaming);
+        this.promptCacheEnabled = promptCacheEnabled;
+    }
+
+    @Override
+    public LLMCompletion complete(LLMRequest request) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("x-api-key", apiKey);
+            headers.set("anthropic-version", "2023-06-01");
+            
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("model", modelFor(request));
+            requestBody.put("max_tokens", request.getMaxTokens());
+            requestBody.put("temperature", request.getTemperature());
+            if (promptCacheEnabled && request.getDocumentPrompt() != null) {
+                requestBody.put("system", List.of(cachedTextBlock(request.getSystemPrompt())));
+                requestBody.put("messages", List.of(
+                    Map.of("role", "user", "content", List.of(
+                        cachedTextBlock(request.getDocumentPrompt()),
+                        textBlock(request.getRulePrompt())
+                    ))
+                ));
+            } else {
+                requestBody.put("system", request.getSystemPrompt());
+                requestBody.put("messages", List.of(
+                    Map.of("role", "user", "content", request.getUserPrompt())
+                ));
+            }
+            
+            log.debug("Calling Anthropic API ({}): {}", getName(), apiUrl);
+            if (streaming) {
+                return completeStreaming(request, headers, requestBody);
+            }
+            ResponseEntity<String> response = post(headers, requestBody);
+            
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode jsonNode = objectMapper.readTree(response.getBody());
+                return withUsage(LLMCompletion.builder(), jsonNode.path("usage"))
+                        .provider(getName())
+                        .model(modelFor(request))
+                        .content(jsonNode.get("content").get(0).get("text").asText())
+                        .build();
+            } else {
+                throw new LLMServiceException("Anthropic API returned status: " + response.getStatusCode());
+            }
+            
+        } catch (Exception e) {
+            log.error("Failed to call Anthropic API ({})", getName(), e);
+            throw new LLMServiceException("Failed to call Anthropic API", e);
+        }
+    }
+
+    private LLMCompletion completeStreaming(LLMRequest request, HttpHeaders headers,
+                                            Map<String, Object> requestBody) {
+        requestBody.put("stream", true);
+        
+        JsonObjectAccumulator verdict = new JsonObjectAccumulator();
+        LLMCompletion.LLMCompletionBuilder completion = LLMCompletion.builder()
+                .provider(getName())
+                .model(modelFor(request));
+        postStreaming(headers, requestBody, data -> {
+            JsonNode event = objectMapper.readTree(data);
+            switch (event.path("type").asText()) {
+                // Prompt usage is known up front, before any text
+                case "message_start" -> withUsage(completion, event.path("message").path("usage"));
+                case "content_block_delta" -> {
+                    JsonNode text = event.path("delta").path("text");
+                    if (text.isTextual()) {
+                        verdict.append(text.asText());
+                    }
+                }
+                case "error" -> throw new LLMServiceException(
+                        "Anthropic stream error: " + event.path("error").path("message").asText());
+                default -> {
+                }
+            }
+            return verdict.isComplete();
+        });
+        
+        return completion.content(verdict.getText()).build();
+    }
+    
+    /**
+     * Copy prompt usage onto the completion. input_tokens excludes tokens
+     * read from or written to the cache.
+     */
+    private LLMCompletion.LLMCompletionBuilder withUsage(LLMCompletion.LLMCompletionBuilder completion,
+                                                         JsonNode usage) {
+        if (!usage.has("input_tokens")) {
+            return completion;
+        }
+        int cacheRead = usage.path("cache_read_input_tokens").asInt(0);
+        return completion
+                .promptTokens(usage.get("input_tokens").asInt() + cacheRead
+                        + usage.path("cache_creation_input_tokens").asInt(0))
+                .cachedPromptTokens(cacheRead);
+    }
+
+    /**
+     * Text content block
+     */
+    private Map<String, Object> textBlock(String text) {
+        Map<String, Object> block = new HashMap<>();
+        block.put("type", "text");
+        block.put("text", text);
+        return block;
+    }
+
+    /**
+     * Text content block marked as a prompt cache breakpoint
+     */
+    private Map<String, Object> cachedTextBlock(String text) {
+        Map<String, Object> block = textBlock(text);
+        block.put("cache_control", Map.of("type", "ephemeral"));
+        return block;
+    }
+}
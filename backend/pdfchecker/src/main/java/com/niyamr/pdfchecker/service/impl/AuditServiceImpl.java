@@ -0,0 +1,521 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niyamr.pdfchecker.constant.AppConstants;
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import com.niyamr.pdfchecker.exception.JobNotFoundException;
+import com.niyamr.pdfchecker.exception.JobQueueFullException;
+import com.niyamr.pdfchecker.model.AuditDocument;
+import com.niyamr.pdfchecker.model.BatchAudit;
+import com.niyamr.pdfchecker.model.BatchResult;
+import com.niyamr.pdfchecker.model.CompiledRuleSet;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.model.LLMResponse;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.model.RuleResult;
+import com.niyamr.pdfchecker.service.AuditService;
+import com.niyamr.pdfchecker.service.BatchLLMProvider;
+import com.niyamr.pdfchecker.service.ContextRetrievalService;
+import com.niyamr.pdfchecker.service.LLMService;
+import com.niyamr.pdfchecker.service.LocalRuleService;
+import com.niyamr.pdfchecker.service.PdfService;
+import com.niyamr.pdfchecker.service.RuleSetService;
+import com.niyamr.pdfchecker.service.VerdictCacheService;
+import com.niyamr.pdfchecker.util.DocumentIndex;
+import com.niyamr.pdfchecker.util.JsonUtils;
+import com.niyamr.pdfchecker.util.VerdictParser;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of offline audits on a provider Batch API. A check job
+ * worker extracts each document, settles what it can locally or from the
+ * verdict cache, and turns the remaining distinct rules into batch request
+ * lines from the usual prompts. Once the batch is submitted its id is
+ * stored, so after a restart the poller picks the batch up again instead
+ * of paying for it twice. Audits are stored in a table on the application
+ * datasource when persistence is enabled, and in memory otherwise.
+ */
+@Slf4j
+@Service
+public class AuditServiceImpl implements AuditService {
+
+    private static final String TABLE_DDL = """
+            CREATE TABLE IF NOT EXISTS batch_audit (
+                id CHAR(36) NOT NULL PRIMARY KEY,
+                status VARCHAR(16) NOT NULL,
+                provider VARCHAR(100) NOT NULL,
+                batch_id VARCHAR(200),
+                rules LONGTEXT NOT NULL,
+                rule_groups LONGTEXT,
+                documents LONGTEXT NOT NULL,
+                request_count INT NOT NULL,
+                submitted_at TIMESTAMP NOT NULL,
+                completed_at TIMESTAMP,
+                error VARCHAR(1000)
+            )
+            """;
+
+    private static final String SELECT_COLUMNS = "SELECT id, status, provider, batch_id, rules, rule_groups, "
+            + "documents, request_count, submitted_at, completed_at, error FROM batch_audit ";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final PdfService pdfService;
+    private final LLMService llmService;
+    private final LocalRuleService localRuleService;
+    private final RuleSetService ruleSetService;
+    private final ContextRetrievalService contextRetrievalService;
+    private final VerdictCacheService verdictCache;
+    private final BatchLLMProvider batchProvider;
+    private final ExecutorService executor;
+    private final ObjectProvider<JdbcTemplate> jdbcTemplateProvider;
+    private final ObjectMapper objectMapper = JsonUtils.MAPPER;
+
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Audits by id; used without a datasource
+     */
+    private final Map<String, BatchAudit> memoryStore = new ConcurrentHashMap<>();
+
+    public AuditServiceImpl(PdfService pdfService,
+                            LLMService llmService,
+                            LocalRuleService localRuleService,
+                            RuleSetService ruleSetService,
+                            ContextRetrievalService contextRetrievalService,
+                            VerdictCacheService verdictCache,
+                            @Qualifier("batchLLMProvider") BatchLLMProvider batchProvider,
+                            @Qualifier("checkJobExecutor") ExecutorService executor,
+                            ObjectProvider<JdbcTemplate> jdbcTemplateProvider) {
+        this.pdfService = pdfService;
+        this.llmService = llmService;
+        this.localRuleService = localRuleService;
+        this.ruleSetService = ruleSetService;
+        this.contextRetrievalService = contextRetrievalService;
+        this.verdictCache = verdictCache;
+        this.batchProvider = batchProvider;
+        this.executor = executor;
+        this.jdbcTemplateProvider = jdbcTemplateProvider;
+    }
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        if (jdbcTemplate == null) {
+            log.info("Audits are kept in memory and do not survive a restart (persistence.enabled is off)");
+            return;
+        }
+        jdbcTemplate.execute(TABLE_DDL);
+
+        // Request lines are not stored, so audits cut off before submission cannot resume
+        for (BatchAudit audit : loadByStatus(AppConstants.AUDIT_PREPARING)) {
+            fail(audit, "Interrupted by a restart before the batch was submitted; submit the audit again");
+        }
+        log.info("Audits are stored in the database; submitted batches are polled after a restart");
+    }
+
+    @Override
+    public BatchAudit submit(List<PdfUpload> uploads, List<String> rules) {
+        BatchAudit audit = save(BatchAudit.builder()
+                .auditId(UUID.randomUUID().toString())
+                .status(AppConstants.AUDIT_PREPARING)
+                .provider(batchProvider.getName())
+                .rules(List.copyOf(rules))
+                .documents(uploads.stream()
+                        .map(upload -> AuditDocument.builder().fileName(upload.getFileName()).build())
+                        .toList())
+                .submittedAt(LocalDateTime.now())
+                .build());
+
+        List<PdfUpload> documents = List.copyOf(uploads);
+        try {
+            executor.execute(() -> prepare(audit, documents));
+        } catch (RejectedExecutionException e) {
+            delete(audit.getAuditId());
+            documents.forEach(PdfUpload::close);
+            throw new JobQueueFullException("Too many pending checks, retry later", e);
+        }
+
+        log.info("Queued audit {} of {} documents with {} rules",
+                audit.getAuditId(), uploads.size(), rules.size());
+        return audit;
+    }
+
+    @Override
+    public BatchAudit getAudit(String auditId) {
+        BatchAudit audit = load(auditId);
+        if (audit == null) {
+            throw new JobNotFoundException("No audit with id " + auditId);
+        }
+        return audit;
+    }
+
+    @Override
+    public List<CheckResponse> getResults(BatchAudit audit) {
+        List<String> rules = audit.getRules();
+        long processingTime = audit.isFinished()
+                ? Duration.between(audit.getSubmittedAt(), audit.getCompletedAt()).toMillis()
+                : 0;
+
+        List<CheckResponse> responses = new ArrayList<>(audit.getDocuments().size());
+        for (AuditDocument document : audit.getDocuments()) {
+            // Each distinct rule's verdict is reported for every member of its group
+            List<RuleResult> results = new ArrayList<>(Collections.nCopies(rules.size(), null));
+            for (int group = 0; group < audit.getGroups().size(); group++) {
+                RuleResult verdict = document.getVerdicts() == null ? null : document.getVerdicts().get(group);
+                for (int index : audit.getGroups().get(group)) {
+                    results.set(index, verdict == null
+                            ? toRuleResult(rules.get(index), errorResponse(
+                                    StringUtils.defaultIfEmpty(document.getError(), "No verdict in batch output")))
+                            : forRule(verdict, rules.get(index)));
+                }
+            }
+
+            CheckResponse response = CheckResponse.builder()
+                    .fileName(document.getFileName())
+                    .totalPages(document.getTotalPages())
+                    .results(results)
+                    .processingTimeMs(processingTime)
+                    .build();
+            response.calculateOverallStatus();
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    /**
+     * Poll every submitted batch and collect the ones that have ended
+     */
+    @Scheduled(fixedDelayString = "${audit.poll-interval-ms:60000}")
+    public void pollBatches() {
+        for (BatchAudit audit : loadByStatus(AppConstants.AUDIT_SUBMITTED)) {
+            if (!batchProvider.getName().equals(audit.getProvider())) {
+                log.warn("Audit {} was sent to {}, which is no longer the batch backend",
+                        audit.getAuditId(), audit.getProvider());
+                continue;
+            }
+            try {
+                switch (batchProvider.getState(audit.getBatchId())) {
+                    case ENDED -> complete(audit, batchProvider.getResults(audit.getBatchId()));
+                    case FAILED -> fail(audit, "Batch " + audit.getBatchId() + " failed at the provider");
+                    case IN_PROGRESS -> log.debug("Batch {} of audit {} still running",
+                            audit.getBatchId(), audit.getAuditId());
+                }
+            } catch (RuntimeException e) {
+                // Try again on the next poll
+                log.warn("Failed to poll batch {} of audit {}: {}",
+                        audit.getBatchId(), audit.getAuditId(), e.getMessage());
+            }
+        }
+    }
+
+    private void prepare(BatchAudit audit, List<PdfUpload> uploads) {
+        try {
+            CompiledRuleSet ruleSet = ruleSetService.compile(audit.getRules());
+            List<String> requests = new ArrayList<>();
+            List<AuditDocument> documents = new ArrayList<>(uploads.size());
+            for (int position = 0; position < uploads.size(); position++) {
+                documents.add(prepareDocument(position, uploads.get(position), ruleSet, requests));
+            }
+
+            BatchAudit prepared = save(audit.toBuilder()
+                    .groups(ruleSet.getGroups())
+                    .documents(documents)
+                    .requestCount(requests.size())
+                    .build());
+            log.info("Audit {} needs {} LLM checks for {} documents",
+                    audit.getAuditId(), requests.size(), documents.size());
+
+            if (requests.isEmpty()) {
+                complete(prepared, List.of());
+                return;
+            }
+            String batchId = batchProvider.submit(requests);
+            save(prepared.toBuilder()
+                    .status(AppConstants.AUDIT_SUBMITTED)
+                    .batchId(batchId)
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Audit {} failed", audit.getAuditId(), e);
+            fail(audit, e.getMessage());
+        } finally {
+            uploads.forEach(PdfUpload::close);
+        }
+    }
+
+    /**
+     * Extract one document, settle what can be settled without the batch
+     * and add a request line for every other distinct rule
+     */
+    private AuditDocument prepareDocument(int position, PdfUpload upload, CompiledRuleSet ruleSet,
+                                          List<String> requests) {
+        ExtractedDocument document;
+        try (upload) {
+            document = pdfService.extractDocument(upload);
+        } catch (RuntimeException e) {
+            log.error("Audit could not extract file: {}", upload.getFileName(), e);
+            return AuditDocument.builder()
+                    .fileName(upload.getFileName())
+                    .error(e.getMessage())
+                    .build();
+        }
+
+        List<String> rules = ruleSet.getRepresentatives();
+        List<RuleResult> verdicts = new ArrayList<>(localRuleService.evaluate(document, ruleSet));
+        List<String> cacheKeys = new ArrayList<>(Collections.nCopies(rules.size(), null));
+        DocumentIndex index = null;
+        for (int i = 0; i < rules.size(); i++) {
+            if (verdicts.get(i) != null) {
+                continue;
+            }
+            if (index == null) {
+                index = contextRetrievalService.buildIndex(document);
+            }
+
+            String rule = rules.get(i);
+            String context = contextRetrievalService.selectContext(index, rule);
+            LLMRequest request = llmService.buildRequest(context, rule);
+            // Keyed by answering model like interactive checks, so verdicts flow both ways
+            String batchModel = batchProvider.modelFor(request);
+            LLMResponse cached = llmService.getCachedVerdict(context, rule, cacheModels(batchModel));
+            String cacheKey = verdictCache.buildKey(context, rule, batchModel, request.getTemperature());
+            if (cached != null) {
+                verdicts.set(i, toRuleResult(rule, cached));
+            } else {
+                requests.add(batchProvider.toRequestLine(customId(position, i), request));
+                cacheKeys.set(i, cacheKey);
+            }
+        }
+
+        return AuditDocument.builder()
+                .fileName(document.getFileName())
+                .totalPages(document.getPageCount())
+                .verdicts(verdicts)
+                .cacheKeys(cacheKeys)
+                .build();
+    }
+
+    /**
+     * Models whose cached verdicts an audit accepts: the batch model first,
+     * then any model an interactive check may be answered with
+     */
+    private List<String> cacheModels(String batchModel) {
+        return Stream.concat(Stream.of(batchModel), llmService.getAnsweringModels().stream())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Map batch results back to the documents' verdicts and finish the audit
+     */
+    private void complete(BatchAudit audit, List<BatchResult> batchResults) {
+        Map<String, BatchResult> byId = new HashMap<>();
+        for (BatchResult result : batchResults) {
+            byId.merge(result.getCustomId(), result, (first, second) -> first.getContent() != null ? first : second);
+        }
+
+        List<String> representatives = audit.getGroups().stream()
+                .map(group -> audit.getRules().get(group.get(0)))
+                .toList();
+        List<AuditDocument> documents = new ArrayList<>(audit.getDocuments().size());
+        int failed = 0;
+        for (int position = 0; position < audit.getDocuments().size(); position++) {
+            AuditDocument document = audit.getDocuments().get(position);
+            if (document.getVerdicts() == null) {
+                documents.add(document);
+                continue;
+            }
+
+            List<RuleResult> verdicts = new ArrayList<>(document.getVerdicts());
+            for (int i = 0; i < verdicts.size(); i++) {
+                String cacheKey = document.getCacheKeys().get(i);
+                if (cacheKey == null) {
+                    continue;
+                }
+                LLMResponse response = toResponse(byId.get(customId(position, i)));
+                if (response.hasError()) {
+                    failed++;
+                }
+                verdictCache.put(cacheKey, response);
+                verdicts.set(i, toRuleResult(representatives.get(i), response));
+            }
+            documents.add(document.toBuilder().verdicts(verdicts).build());
+        }
+
+        save(audit.toBuilder()
+                .status(AppConstants.AUDIT_COMPLETED)
+                .documents(documents)
+                .completedAt(LocalDateTime.now())
+                .build());
+        log.info("Audit {} completed - {} of {} batch requests failed",
+                audit.getAuditId(), failed, audit.getRequestCount());
+    }
+
+    private void fail(BatchAudit audit, String error) {
+        try {
+            save(audit.toBuilder()
+                    .status(AppConstants.AUDIT_FAILED)
+                    .completedAt(LocalDateTime.now())
+                    .error(StringUtils.abbreviate(error, MAX_ERROR_LENGTH))
+                    .build());
+        } catch (RuntimeException e) {
+            log.error("Failed to record failure of audit {}", audit.getAuditId(), e);
+        }
+    }
+
+    /**
+     * Verdict for one batch result; missing, failed and unparsable results
+     * become errors
+     */
+    private LLMResponse toResponse(BatchResult result) {
+        if (result == null) {
+            return errorResponse("No result in batch output");
+        }
+        if (result.getError() != null) {
+            return errorResponse(result.getError());
+        }
+        LLMResponse response = VerdictParser.parse(result.getContent());
+        return response != null ? response : errorResponse("Failed to parse LLM response");
+    }
+
+    private String customId(int position, int rule) {
+        return "d" + position + "-r" + rule;
+    }
+
+    private LLMResponse errorResponse(String message) {
+        return LLMResponse.builder()
+                .status(AppConstants.STATUS_ERROR)
+                .evidence("Error occurred during LLM processing")
+                .reasoning("Failed to process rule: " + message)
+                .confidence(0)
+                .error(message)
+                .build();
+    }
+
+    /**
+     * A group's result reported under one of its member rules
+     */
+    private RuleResult forRule(RuleResult result, String rule) {
+        return rule.equals(result.getRule()) ? result : result.toBuilder().rule(rule).build();
+    }
+
+    private RuleResult toRuleResult(String rule, LLMResponse llmResponse) {
+        return RuleResult.builder()
+                .rule(rule)
+                .status(llmResponse.getStatus())
+                .evidence(llmResponse.getEvidence())
+                .reasoning(llmResponse.getReasoning())
+                .confidence(llmResponse.getConfidence())
+                .source(AppConstants.SOURCE_LLM)
+                .build();
+    }
+
+    private BatchAudit save(BatchAudit audit) {
+        if (jdbcTemplate == null) {
+            memoryStore.put(audit.getAuditId(), audit);
+            return audit;
+        }
+
+        String groups = toJson(audit.getGroups());
+        String documents = toJson(audit.getDocuments());
+        Timestamp completedAt = audit.getCompletedAt() == null ? null : Timestamp.valueOf(audit.getCompletedAt());
+        int updated = jdbcTemplate.update(
+                "UPDATE batch_audit SET status = ?, batch_id = ?, rule_groups = ?, documents = ?, "
+                        + "request_count = ?, completed_at = ?, error = ? WHERE id = ?",
+                audit.getStatus(), audit.getBatchId(), groups, documents,
+                audit.getRequestCount(), completedAt, audit.getError(), audit.getAuditId());
+        if (updated == 0) {
+            jdbcTemplate.update(
+                    "INSERT INTO batch_audit (id, status, provider, batch_id, rules, rule_groups, documents, "
+                            + "request_count, submitted_at, completed_at, error) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    audit.getAuditId(), audit.getStatus(), audit.getProvider(), audit.getBatchId(),
+                    toJson(audit.getRules()), groups, documents, audit.getRequestCount(),
+                    Timestamp.valueOf(audit.getSubmittedAt()), completedAt, audit.getError());
+        }
+        return audit;
+    }
+
+    private BatchAudit load(String auditId) {
+        if (jdbcTemplate == null) {
+            return memoryStore.get(auditId);
+        }
+        List<BatchAudit> rows = jdbcTemplate.query(SELECT_COLUMNS + "WHERE id = ?", rowMapper(), auditId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private List<BatchAudit> loadByStatus(String status) {
+        if (jdbcTemplate == null) {
+            return memoryStore.values().stream()
+                    .filter(audit -> status.equals(audit.getStatus()))
+                    .toList();
+        }
+        return jdbcTemplate.query(SELECT_COLUMNS + "WHERE status = ?", rowMapper(), status);
+    }
+
+    private void delete(String auditId) {
+        if (jdbcTemplate == null) {
+            memoryStore.remove(auditId);
+        } else {
+            jdbcTemplate.update("DELETE FROM batch_audit WHERE id = ?", auditId);
+        }
+    }
+
+    private RowMapper<BatchAudit> rowMapper() {
+        return (rs, rowNum) -> {
+            Timestamp completedAt = rs.getTimestamp("completed_at");
+            return BatchAudit.builder()
+                    .auditId(rs.getString("id").trim())
+                    .status(rs.getString("status"))
+                    .provider(rs.getString("provider"))
+                    .batchId(rs.getString("batch_id"))
+                    .rules(fromJson(rs.getString("rules"), new TypeReference<List<String>>() { }))
+                    .groups(fromJson(rs.getString("rule_groups"), new TypeReference<List<List<Integer>>>() { }))
+                    .documents(fromJson(rs.getString("documents"), new TypeReference<List<AuditDocument>>() { }))
+                    .requestCount(rs.getInt("request_count"))
+                    .submittedAt(rs.getTimestamp("submitted_at").toLocalDateTime())
+                    .completedAt(completedAt == null ? null : completedAt.toLocalDateTime())
+                    .error(rs.getString("error"))
+                    .build();
+        };
+    }
+
+    private String toJson(Object value) {
+        try {
+            return value == null ? null : objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise audit", e);
+        }
+    }
+
+    private <T> T fromJson(String json, TypeReference<T> type) {
+        try {
+            return json == null ? null : objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored audit is not valid JSON", e);
+        }
+    }
+}
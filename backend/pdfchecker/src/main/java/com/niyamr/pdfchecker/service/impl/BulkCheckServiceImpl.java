@@ -0,0 +1,286 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.dto.BulkCheckSummary;
+import com.niyamr.pdfchecker.dto.BulkDocumentEvent;
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import com.niyamr.pdfchecker.dto.ErrorResponse;
+import com.niyamr.pdfchecker.exception.JobQueueFullException;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.service.BulkCheckService;
+import com.niyamr.pdfchecker.service.CheckService;
+import com.niyamr.pdfchecker.service.PdfService;
+import com.niyamr.pdfchecker.service.RuleResultListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementation of bulk checks as a two-stage pipeline. A coordinator
+ * thread from the bulk check pool hands each document to the bulk
+ * extraction pool, which passes it on to the bulk evaluation pool once its
+ * text is out, so later documents are extracted while the LLM calls for
+ * earlier ones are running. Each stage has its own bounded pool, and a
+ * semaphore bounds the documents that are extracted but not yet finished,
+ * which keeps extracted text in memory bounded when evaluation is the
+ * slower stage.
+ */
+@Slf4j
+@Service
+public class BulkCheckServiceImpl implements BulkCheckService {
+
+    private static final String EVENT_DOCUMENT = "document";
+    private static final String EVENT_COMPLETE = "complete";
+    private static final String EVENT_ERROR = "error";
+
+    private final PdfService pdfService;
+    private final CheckService checkService;
+    private final ExecutorService coordinatorExecutor;
+    private final ExecutorService extractionExecutor;
+    private final ExecutorService evaluationExecutor;
+
+    @Value("${bulk-check.max-documents-in-flight:4}")
+    private int maxDocumentsInFlight;
+
+    @Value("${bulk-check.timeout-ms:3600000}")
+    private long timeoutMs;
+
+    public BulkCheckServiceImpl(PdfService pdfService,
+                                CheckService checkService,
+                                @Qualifier("bulkCoordinatorExecutor") ExecutorService coordinatorExecutor,
+                                @Qualifier("bulkExtractionExecutor") ExecutorService extractionExecutor,
+                                @Qualifier("bulkEvaluationExecutor") ExecutorService evaluationExecutor) {
+        this.pdfService = pdfService;
+        this.checkService = checkService;
+        this.coordinatorExecutor = coordinatorExecutor;
+        this.extractionExecutor = extractionExecutor;
+        this.evaluationExecutor = evaluationExecutor;
+    }
+
+    @Override
+    public SseEmitter stream(List<PdfUpload> uploads, List<String> rules) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+
+        List<PdfUpload> documents = List.copyOf(uploads);
+        try {
+            coordinatorExecutor.execute(() -> run(emitter, open, documents, List.copyOf(rules)));
+        } catch (RejectedExecutionException e) {
+            documents.forEach(PdfUpload::close);
+            throw new JobQueueFullException("Too many pending bulk checks, retry later", e);
+        }
+        return emitter;
+    }
+
+    private void run(SseEmitter emitter, AtomicBoolean open, List<PdfUpload> uploads, List<String> rules) {
+        long startTime = System.currentTimeMillis();
+        BulkRun bulk = new BulkRun(emitter, open, uploads, rules);
+        List<Future<?>> extractions = new ArrayList<>(uploads.size());
+        int started = 0;
+
+        log.info("Starting bulk check of {} documents with {} rules", uploads.size(), rules.size());
+
+        try {
+            for (; started < uploads.size(); started++) {
+                if (!open.get()) {
+                    // Client went away; finish what is running but start nothing new
+                    log.warn("Bulk check stream closed, skipping {} documents", uploads.size() - started);
+                    break;
+                }
+                int index = started;
+                bulk.inFlight.acquire();
+                extractions.add(extractionExecutor.submit(() -> extract(bulk, index)));
+            }
+
+            // Every hand-off to the evaluation pool happens inside an extraction
+            for (Future<?> extraction : extractions) {
+                extraction.get();
+            }
+            for (Future<?> evaluation : bulk.evaluations) {
+                evaluation.get();
+            }
+
+            long processingTime = System.currentTimeMillis() - startTime;
+            log.info("Bulk check completed in {}ms - {} checked, {} failed",
+                    processingTime, bulk.checked.get(), bulk.failed.get());
+
+            send(emitter, open, EVENT_COMPLETE, BulkCheckSummary.builder()
+                    .documentCount(uploads.size())
+                    .checkedCount(bulk.checked.get())
+                    .failedCount(bulk.failed.get())
+                    .skippedCount(uploads.size() - started)
+                    .processingTimeMs(processingTime)
+                    .build());
+            emitter.complete();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            extractions.forEach(extraction -> extraction.cancel(true));
+            bulk.evaluations.forEach(evaluation -> evaluation.cancel(true));
+            emitter.complete();
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Bulk check failed", e);
+            send(emitter, open, EVENT_ERROR, ErrorResponse.of(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), null));
+            emitter.complete();
+        } finally {
+            // Uploads that no stage has claimed, because they were never
+            // reached or their task was cancelled before it ran, are closed here
+            bulk.closeUnclaimed();
+        }
+    }
+
+    /**
+     * Extraction stage for one document: extract the text, then hand the
+     * document to the evaluation stage
+     */
+    private void extract(BulkRun bulk, int index) {
+        PdfUpload upload = bulk.uploads.get(index);
+        if (!bulk.claim(index)) {
+            bulk.inFlight.release();
+            return;
+        }
+        long documentStart = System.currentTimeMillis();
+        ExtractedDocument document;
+        try {
+            document = pdfService.extractDocument(upload);
+        } catch (RuntimeException e) {
+            bulk.inFlight.release();
+            upload.close();
+            bulk.failed.incrementAndGet();
+            sendFailure(bulk.emitter, bulk.open, index, upload.getFileName(), e);
+            return;
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            bulk.inFlight.release();
+            upload.close();
+            return;
+        }
+        // Hand the upload back so it is closed even if the evaluation never runs
+        bulk.unclaim(index);
+        try {
+            bulk.evaluations.add(evaluationExecutor.submit(() -> evaluate(bulk, index, document, documentStart)));
+        } catch (RejectedExecutionException e) {
+            bulk.inFlight.release();
+            if (bulk.claim(index)) {
+                upload.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Evaluation stage for one document
+     */
+    private void evaluate(BulkRun bulk, int index, ExtractedDocument document, long documentStart) {
+        PdfUpload upload = bulk.uploads.get(index);
+        try {
+            if (!bulk.claim(index)) {
+                return;
+            }
+            try (upload) {
+                CheckResponse response = checkService.check(document, bulk.rules,
+                        RuleResultListener.NONE, documentStart);
+                bulk.checked.incrementAndGet();
+                send(bulk.emitter, bulk.open, EVENT_DOCUMENT, BulkDocumentEvent.builder()
+                        .index(index)
+                        .fileName(upload.getFileName())
+                        .response(response)
+                        .build());
+            } catch (RuntimeException e) {
+                bulk.failed.incrementAndGet();
+                sendFailure(bulk.emitter, bulk.open, index, upload.getFileName(), e);
+            }
+        } finally {
+            bulk.inFlight.release();
+        }
+    }
+
+    private void sendFailure(SseEmitter emitter, AtomicBoolean open, int index, String fileName, Exception e) {
+        log.error("Bulk check failed for file: {}", fileName, e);
+        send(emitter, open, EVENT_DOCUMENT, BulkDocumentEvent.builder()
+                .index(index)
+                .fileName(fileName)
+                .error(e.getMessage())
+                .build());
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean open, String eventName, Object data) {
+        if (!open.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Stopped streaming {} events: {}", eventName, e.getMessage());
+            open.set(false);
+        }
+    }
+
+    /**
+     * State shared by the stages of one bulk check. An upload is owned by
+     * at most one stage at a time: a stage claims it before touching the
+     * file, and whatever is left unclaimed when the check ends is closed by
+     * the coordinator.
+     */
+    private final class BulkRun {
+
+        private final SseEmitter emitter;
+        private final AtomicBoolean open;
+        private final List<PdfUpload> uploads;
+        private final List<String> rules;
+        private final Semaphore inFlight = new Semaphore(Math.max(1, maxDocumentsInFlight));
+        private final Queue<Future<?>> evaluations = new ConcurrentLinkedQueue<>();
+        private final Set<Integer> unclaimed = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger checked = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private BulkRun(SseEmitter emitter, AtomicBoolean open, List<PdfUpload> uploads, List<String> rules) {
+            this.emitter = emitter;
+            this.open = open;
+            this.uploads = uploads;
+            this.rules = rules;
+            for (int i = 0; i < uploads.size(); i++) {
+                unclaimed.add(i);
+            }
+        }
+
+        private boolean claim(int index) {
+            return unclaimed.remove(index);
+        }
+
+        private void unclaim(int index) {
+            unclaimed.add(index);
+        }
+
+        private void closeUnclaimed() {
+            for (int i = 0; i < uploads.size(); i++) {
+                if (claim(i)) {
+                    uploads.get(i).close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.constant.AppConstants;
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import com.niyamr.pdfchecker.exception.JobNotFoundException;
+import com.niyamr.pdfchecker.exception.JobQueueFullException;
+import com.niyamr.pdfchecker.model.CheckJob;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.service.CheckJobService;
+import com.niyamr.pdfchecker.service.CheckService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory implementation of check job service. Finished jobs are kept
+ * until they expire.
+ */
+@Slf4j
+@Service
+public class CheckJobServiceImpl implements CheckJobService {
+
+    private final CheckService checkService;
+    private final ExecutorService executor;
+
+    private final Map<String, CheckJob> jobs = new ConcurrentHashMap<>();
+
+    @Value("${check-jobs.expiry-minutes:60}")
+    private long expiryMinutes;
+
+    public CheckJobServiceImpl(CheckService checkService,
+                               @Qualifier("checkJobExecutor") ExecutorService executor) {
+        this.checkService = checkService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CheckJob submit(PdfUpload upload, List<String> rules) {
+        CheckJob job = CheckJob.builder()
+                .jobId(UUID.randomUUID().toString())
+                .status(AppConstants.JOB_QUEUED)
+                .fileName(upload.getFileName())
+                .ruleCount(rules.size())
+                .submittedAt(LocalDateTime.now())
+                .build();
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executor.execute(() -> run(job.getJobId(), upload, List.copyOf(rules)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getJobId());
+            upload.close();
+            throw new JobQueueFullException("Too many pending check jobs, retry later", e);
+        }
+
+        log.info("Queued check job {} for file: {}", job.getJobId(), upload.getFileName());
+        return job;
+    }
+
+    @Override
+    public CheckJob getJob(String jobId) {
+        CheckJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new JobNotFoundException("No check job with id " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * Drop finished jobs older than the expiry
+     */
+    @Scheduled(fixedDelayString = "${check-jobs.cleanup-interval-ms:60000}")
+    public void purgeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(expiryMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+
+    private void run(String jobId, PdfUpload upload, List<String> rules) {
+        update(jobId, job -> job.toBuilder()
+                .status(AppConstants.JOB_RUNNING)
+                .startedAt(LocalDateTime.now())
+                .build());
+
+        try (upload) {
+            CheckResponse response = checkService.check(upload, rules);
+            update(jobId, job -> job.toBuilder()
+                    .status(AppConstants.JOB_COMPLETED)
+                    .completedAt(LocalDateTime.now())
+                    .result(response)
+                    .build());
+        } catch (Exception e) {
+            log.error("Check job {} failed", jobId, e);
+            update(jobId, job -> job.toBuilder()
+                    .status(AppConstants.JOB_FAILED)
+                    .completedAt(LocalDateTime.now())
+                    .error(e.getMessage())
+                    .build());
+        }
+    }
+
+    private void update(String jobId, UnaryOperator<CheckJob> change) {
+        jobs.computeIfPresent(jobId, (id, job) -> change.apply(job));
+    }
+}
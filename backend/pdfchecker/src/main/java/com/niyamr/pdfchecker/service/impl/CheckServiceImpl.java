@@ -0,0 +1,69 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.model.RuleResult;
+import com.niyamr.pdfchecker.service.CheckService;
+import com.niyamr.pdfchecker.service.PdfService;
+import com.niyamr.pdfchecker.service.RuleEvaluationService;
+import com.niyamr.pdfchecker.service.RuleResultListener;
+import com.niyamr.pdfchecker.util.PipelineMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Implementation of check service shared by the synchronous and job endpoints
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CheckServiceImpl implements CheckService {
+
+    private final PdfService pdfService;
+    private final RuleEvaluationService ruleEvaluationService;
+    private final PipelineMetrics metrics;
+
+    @Override
+    public CheckResponse check(PdfUpload upload, List<String> rules) {
+        return check(upload, rules, RuleResultListener.NONE);
+    }
+
+    @Override
+    public CheckResponse check(PdfUpload upload, List<String> rules, RuleResultListener listener) {
+        long startTime = System.currentTimeMillis();
+
+        // Parse the PDF once for text and page count
+        ExtractedDocument document = pdfService.extractDocument(upload);
+
+        return check(document, rules, listener, startTime);
+    }
+
+    @Override
+    public CheckResponse check(ExtractedDocument document, List<String> rules, RuleResultListener listener,
+                               long startTimeMillis) {
+        // Check all rules concurrently
+        List<RuleResult> results = metrics.time(PipelineMetrics.STAGE_RULE_EVALUATION,
+                () -> ruleEvaluationService.evaluateRules(document, rules, listener));
+        metrics.countVerdicts(results);
+
+        // Build response
+        long processingTime = System.currentTimeMillis() - startTimeMillis;
+        CheckResponse response = CheckResponse.builder()
+                .fileName(document.getFileName())
+                .totalPages(document.getPageCount())
+                .results(results)
+                .processingTimeMs(processingTime)
+                .build();
+
+        response.calculateOverallStatus();
+
+        log.info("Check completed successfully in {}ms - Status: {}",
+                processingTime, response.getOverallStatus());
+
+        return response;
+    }
+}
@@ -0,0 +1,95 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import com.niyamr.pdfchecker.dto.ErrorResponse;
+import com.niyamr.pdfchecker.dto.RuleResultEvent;
+import com.niyamr.pdfchecker.exception.JobQueueFullException;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.service.CheckService;
+import com.niyamr.pdfchecker.service.CheckStreamService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of check stream service. Checks run on the check job
+ * workers so streaming requests share the same bounded capacity.
+ */
+@Slf4j
+@Service
+public class CheckStreamServiceImpl implements CheckStreamService {
+
+    private static final String EVENT_RULE = "rule";
+    private static final String EVENT_COMPLETE = "complete";
+    private static final String EVENT_ERROR = "error";
+
+    private final CheckService checkService;
+    private final ExecutorService executor;
+
+    @Value("${check-stream.timeout-ms:300000}")
+    private long timeoutMs;
+
+    public CheckStreamServiceImpl(CheckService checkService,
+                                  @Qualifier("checkJobExecutor") ExecutorService executor) {
+        this.checkService = checkService;
+        this.executor = executor;
+    }
+
+    @Override
+    public SseEmitter stream(PdfUpload upload, List<String> rules) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+
+        try {
+            executor.execute(() -> run(emitter, open, upload, List.copyOf(rules)));
+        } catch (RejectedExecutionException e) {
+            upload.close();
+            throw new JobQueueFullException("Too many pending checks, retry later", e);
+        }
+        return emitter;
+    }
+
+    private void run(SseEmitter emitter, AtomicBoolean open, PdfUpload upload, List<String> rules) {
+        try (upload) {
+            CheckResponse response = checkService.check(upload, rules, (index, result) ->
+                    send(emitter, open, EVENT_RULE, RuleResultEvent.builder()
+                            .index(index)
+                            .result(result)
+                            .build()));
+
+            send(emitter, open, EVENT_COMPLETE, response);
+            emitter.complete();
+
+        } catch (Exception e) {
+            log.error("Streaming check failed for file: {}", upload.getFileName(), e);
+            send(emitter, open, EVENT_ERROR, ErrorResponse.of(
+                    HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage(), null));
+            emitter.complete();
+        }
+    }
+
+    private void send(SseEmitter emitter, AtomicBoolean open, String eventName, Object data) {
+        if (!open.get()) {
+            return;
+        }
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; keep checking so the verdicts still land in the caches
+            log.warn("Stopped streaming {} events: {}", eventName, e.getMessage());
+            open.set(false);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.model.DocumentChunk;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.service.ContextRetrievalService;
+import com.niyamr.pdfchecker.service.TokenBudgetService;
+import com.niyamr.pdfchecker.util.DocumentIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of context retrieval using a per-document BM25 index
+ */
+@Slf4j
+@Service
+public class ContextRetrievalServiceImpl implements ContextRetrievalService {
+
+    private static final String GAP_MARKER = "[...]";
+
+    private final TokenBudgetService tokenBudgetService;
+
+    @Value("${retrieval.enabled:true}")
+    private boolean enabled;
+
+    @Value("${retrieval.chunk-chars:1200}")
+    private int chunkChars;
+
+    public ContextRetrievalServiceImpl(TokenBudgetService tokenBudgetService) {
+        this.tokenBudgetService = tokenBudgetService;
+    }
+
+    @Override
+    public DocumentIndex buildIndex(ExtractedDocument document) {
+        List<String> pageTexts = document.getPageTexts() != null
+                ? document.getPageTexts()
+                : List.of(document.getText());
+        DocumentIndex index = DocumentIndex.build(document.getText(), pageTexts, chunkChars);
+
+        log.debug("Indexed {} chunks for {}", index.getChunks().size(), document.getFileName());
+        return index;
+    }
+
+    @Override
+    public String selectContext(DocumentIndex index, String query) {
+        String text = index.getText();
+        int budget = tokenBudgetService.getDocumentTokenLimit();
+        if (!enabled || index.getChunks().isEmpty() || tokenBudgetService.estimateTokens(text) <= budget) {
+            return text;
+        }
+
+        List<DocumentChunk> chunks = index.getChunks();
+        double[] scores = index.score(query);
+
+        List<DocumentChunk> ranked = new ArrayList<>(chunks);
+        ranked.removeIf(chunk -> scores[chunk.getIndex()] <= 0);
+        ranked.sort(Comparator.comparingDouble((DocumentChunk chunk) -> -scores[chunk.getIndex()])
+                .thenComparingInt(DocumentChunk::getIndex));
+
+        // Nothing matched the rule: fall back to the start of the document
+        if (ranked.isEmpty()) {
+            ranked = chunks;
+        }
+
+        List<DocumentChunk> selected = new ArrayList<>();
+        int used = 0;
+        for (DocumentChunk chunk : ranked) {
+            int cost = tokenBudgetService.estimateTokens(chunk.getText()) + overhead(chunk);
+            if (used + cost <= budget) {
+                selected.add(chunk);
+                used += cost;
+            }
+        }
+        selected.sort(Comparator.comparingInt(DocumentChunk::getIndex));
+
+        log.debug("Selected {} of {} chunks (~{} tokens) for query", selected.size(), chunks.size(), used);
+        return render(selected);
+    }
+
+    /**
+     * Join chunks in document order, labelling pages and marking skipped text
+     */
+    private String render(List<DocumentChunk> selected) {
+        StringBuilder context = new StringBuilder();
+        DocumentChunk previous = null;
+        for (DocumentChunk chunk : selected) {
+            if (previous != null) {
+                context.append("\n\n");
+                if (chunk.getIndex() != previous.getIndex() + 1) {
+                    context.append(GAP_MARKER).append("\n\n");
+                }
+            }
+            if (previous == null || chunk.getPageNumber() != previous.getPageNumber()) {
+                context.append("[Page ").append(chunk.getPageNumber()).append("]\n");
+            }
+            context.append(chunk.getText());
+            previous = chunk;
+        }
+        return context.toString();
+    }
+
+    /**
+     * Upper bound on the separator and page label added around a chunk
+     */
+    private int overhead(DocumentChunk chunk) {
+        return tokenBudgetService.estimateTokens("\n\n" + GAP_MARKER + "\n\n[Page " + chunk.getPageNumber() + "]\n");
+    }
+}
@@ -0,0 +1,187 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.niyamr.pdfchecker.model.CacheStats;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.service.DocumentCacheService;
+import com.niyamr.pdfchecker.util.JsonUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Cache of extracted documents keyed by the SHA-256 of the PDF bytes.
+ * The memory tier is bounded by the size of the cached text; entries evicted
+ * for size can optionally spill to a local directory.
+ */
+@Slf4j
+@Service
+public class DocumentCacheServiceImpl implements DocumentCacheService {
+
+    private static final String SPILL_SUFFIX = ".json";
+
+    @Value("${document-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${document-cache.max-memory-mb:64}")
+    private long maxMemoryMb;
+
+    @Value("${document-cache.spill-enabled:false}")
+    private boolean spillEnabled;
+
+    @Value("${document-cache.spill-dir:${java.io.tmpdir}/pdfchecker-text-cache}")
+    private String spillDir;
+
+    @Value("${document-cache.max-disk-mb:512}")
+    private long maxDiskMb;
+
+    private final ObjectMapper objectMapper = JsonUtils.MAPPER;
+
+    private Cache<String, ExtractedDocument> memoryCache;
+    private Path spillPath;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @PostConstruct
+    void init() throws IOException {
+        Caffeine<String, ExtractedDocument> builder = Caffeine.newBuilder()
+                .maximumWeight(maxMemoryMb * 1024 * 1024)
+                .weigher((String hash, ExtractedDocument document) ->
+                        (int) Math.min(Integer.MAX_VALUE, document.estimateTextSizeBytes()));
+
+        if (enabled && spillEnabled) {
+            spillPath = Paths.get(spillDir);
+            Files.createDirectories(spillPath);
+            builder = builder.removalListener((String hash, ExtractedDocument document, RemovalCause cause) -> {
+                if (cause == RemovalCause.SIZE && document != null) {
+                    spill(hash, document);
+                }
+            });
+            log.info("Extracted text cache spills to {}", spillPath);
+        }
+
+        memoryCache = builder.build();
+    }
+
+    @Override
+    public ExtractedDocument get(String contentHash) {
+        if (!enabled || contentHash == null) {
+            return null;
+        }
+
+        ExtractedDocument cached = memoryCache.getIfPresent(contentHash);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return cached;
+        }
+
+        cached = loadSpilled(contentHash);
+        if (cached != null) {
+            diskHits.incrementAndGet();
+            memoryCache.put(contentHash, cached);
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public void put(ExtractedDocument document) {
+        if (!enabled || document.getContentHash() == null) {
+            return;
+        }
+        memoryCache.put(document.getContentHash(), document);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return CacheStats.builder()
+                .name("extracted-text")
+                .memoryHits(memoryHits.get())
+                .secondaryHits(diskHits.get())
+                .misses(misses.get())
+                .size(memoryCache.estimatedSize())
+                .build();
+    }
+
+    private ExtractedDocument loadSpilled(String contentHash) {
+        if (spillPath == null) {
+            return null;
+        }
+
+        Path file = spillPath.resolve(contentHash + SPILL_SUFFIX);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            return objectMapper.readValue(file.toFile(), ExtractedDocument.class);
+        } catch (IOException e) {
+            log.warn("Failed to read spilled text for {}: {}", contentHash, e.getMessage());
+            return null;
+        }
+    }
+
+    private void spill(String contentHash, ExtractedDocument document) {
+        try {
+            Path target = spillPath.resolve(contentHash + SPILL_SUFFIX);
+            Path temp = Files.createTempFile(spillPath, contentHash, ".tmp");
+            objectMapper.writeValue(temp.toFile(), document);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            pruneSpillDir();
+        } catch (IOException e) {
+            log.warn("Failed to spill extracted text for {}: {}", contentHash, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the oldest spilled entries until the directory fits its budget
+     */
+    private synchronized void pruneSpillDir() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(spillPath)) {
+            files = stream.filter(path -> path.toString().endsWith(SPILL_SUFFIX))
+                    .sorted(Comparator.comparingLong(this::lastModified))
+                    .toList();
+        }
+
+        long total = 0;
+        for (Path file : files) {
+            total += Files.size(file);
+        }
+
+        long maxBytes = maxDiskMb * 1024 * 1024;
+        for (Path file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            total -= Files.size(file);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.config.LlmRoutingProperties;
+import com.niyamr.pdfchecker.exception.LLMBackendUnavailableException;
+import com.niyamr.pdfchecker.exception.LLMServiceException;
+import com.niyamr.pdfchecker.model.BackendStatus;
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.service.LLMProvider;
+import com.niyamr.pdfchecker.service.LLMRouter;
+import com.niyamr.pdfchecker.util.CircuitBreaker;
+import com.niyamr.pdfchecker.util.LatencyTracker;
+import com.niyamr.pdfchecker.util.PipelineMetrics;
+import com.niyamr.pdfchecker.util.RateLimitHeaders;
+import com.niyamr.pdfchecker.util.TokenBucketRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of LLM router. Each request gets a weighted random order
+ * of backends; retryable failures (429, 5xx, I/O) move on to the next
+ * backend in that order, with jittered exponential backoff when the order
+ * wraps back to a backend already tried. With hedging enabled, a duplicate
+ * request goes to the next backend once the primary has been slower than
+ * its recent latency percentile, and the first answer wins.
+ *
+ * Each backend is guarded by a circuit breaker and a bulkhead. Calls to a
+ * backend whose breaker is open or whose bulkhead is full fail fast with
+ * {@link LLMBackendUnavailableException} and move on to the next backend.
+ */
+@Slf4j
+@Service
+public class LLMRouterImpl implements LLMRouter {
+
+    private final List<LLMProvider> providers;
+    private final LlmRoutingProperties.Hedge hedge;
+    private final ExecutorService hedgeExecutor;
+    private final LlmRoutingProperties.Bulkhead bulkheadSettings;
+    private final PipelineMetrics metrics;
+    private final Map<String, LatencyTracker> latencies = new HashMap<>();
+    private final Map<String, CircuitBreaker> breakers = new HashMap<>();
+    private final Map<String, Semaphore> bulkheads = new HashMap<>();
+
+    @Value("${llm.retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${llm.retry.initial-backoff-ms:500}")
+    private long initialBackoffMs;
+
+    @Value("${llm.retry.max-backoff-ms:8000}")
+    private long maxBackoffMs;
+
+    @Value("${llm.retry.deadline-ms:60000}")
+    private long deadlineMs;
+
+    public LLMRouterImpl(@Qualifier("llmProviders") List<LLMProvider> providers,
+                         LlmRoutingProperties properties,
+                         @Qualifier("llmHedgeExecutor") ExecutorService hedgeExecutor,
+                         PipelineMetrics metrics) {
+        this.providers = providers;
+        this.hedge = properties.getHedge();
+        this.hedgeExecutor = hedgeExecutor;
+        this.bulkheadSettings = properties.getBulkhead();
+        this.metrics = metrics;
+
+        LlmRoutingProperties.Breaker breaker = properties.getCircuitBreaker();
+        for (LLMProvider provider : providers) {
+            latencies.put(provider.getName(), new LatencyTracker(hedge.getWindowSize()));
+            breakers.put(provider.getName(), new CircuitBreaker(
+                    breaker.getWindowSize(), breaker.getMinimumCalls(),
+                    breaker.getFailureRateThreshold(), breaker.getSlowCallRateThreshold(),
+                    breaker.getSlowCallMs(), breaker.getOpenWaitMs(), breaker.getHalfOpenCalls()));
+            bulkheads.put(provider.getName(), new Semaphore(Math.max(1, bulkheadSettings.getMaxConcurrentCalls())));
+        }
+    }
+
+    @Override
+    public LLMCompletion complete(LLMRequest request) {
+        log.info("Estimated prompt tokens: {}, max output tokens: {}",
+                request.getEstimatedPromptTokens(), request.getMaxTokens());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        int cost = request.getEstimatedPromptTokens() + request.getMaxTokens();
+        List<LLMProvider> order = weightedOrder();
+
+        for (int attempt = 1; ; attempt++) {
+            LLMProvider primary = order.get((attempt - 1) % order.size());
+            LLMProvider secondary = order.size() > 1 ? order.get(attempt % order.size()) : null;
+
+            try {
+                LLMCompletion completion = hedge.isEnabled() && secondary != null
+                        ? callHedged(primary, secondary, request, cost, deadline)
+                        : call(primary, request, cost, deadline);
+
+                log.info("Prompt tokens: {} ({} cached) via {}",
+                        completion.getPromptTokens(), completion.getCachedPromptTokens(), completion.getProvider());
+                return completion;
+
+            } catch (LLMBackendUnavailableException e) {
+                // Skip to a backend not tried yet; never wait for an open breaker
+                if (attempt >= order.size() || attempt >= maxAttempts) {
+                    log.error("No LLM backend available: {}", e.getMessage());
+                    throw e;
+                }
+                log.warn("{}, trying {}", e.getMessage(), order.get(attempt % order.size()).getName());
+
+            } catch (LLMServiceException e) {
+                Duration delay = retryDelay(e, attempt);
+                if (delay == null || attempt >= maxAttempts) {
+                    log.error("Failed to call LLM API after {} attempt(s)", attempt, e);
+                    throw new LLMServiceException("Failed to call LLM API", e);
+                }
+
+                // Fail over straight away; only back off before reusing a backend
+                LLMProvider next = order.get(attempt % order.size());
+                boolean reuse = attempt >= order.size();
+                if (reuse && System.nanoTime() + delay.toNanos() > deadline) {
+                    log.error("Failed to call LLM API, no time left to retry", e);
+                    throw new LLMServiceException("Failed to call LLM API", e);
+                }
+
+                log.warn("LLM call failed (attempt {}/{}), retrying on {}{}: {}",
+                        attempt, maxAttempts, next.getName(),
+                        reuse ? " in " + delay.toMillis() + " ms" : "", rootMessage(e));
+                if (reuse) {
+                    sleep(delay);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<String> modelsFor(LLMRequest request) {
+        return routableProviders().stream()
+                .map(provider -> provider.modelFor(request))
+                .distinct()
+                .toList();
+    }
+
+    @Override
+    public List<BackendStatus> getBackendStatus() {
+        return providers.stream()
+                .map(provider -> {
+                    CircuitBreaker breaker = breakers.get(provider.getName());
+                    int maxConcurrent = Math.max(1, bulkheadSettings.getMaxConcurrentCalls());
+                    return BackendStatus.builder()
+                            .name(provider.getName())
+                            .circuitState(breaker.getState().name())
+                            .failureRate(breaker.getFailureRate())
+                            .slowCallRate(breaker.getSlowCallRate())
+                            .recordedCalls(breaker.getRecordedCalls())
+                            .inFlightCalls(maxConcurrent - bulkheads.get(provider.getName()).availablePermits())
+                            .maxConcurrentCalls(maxConcurrent)
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * One guarded call to a backend: circuit breaker, then rate limit, then
+     * bulkhead. Rate limit budget taken for a call the bulkhead turns away
+     * is given back. The outcome feeds the breaker and the latency tracker.
+     */
+    private LLMCompletion call(LLMProvider provider, LLMRequest request, int cost, long deadline) {
+        String name = provider.getName();
+        CircuitBreaker breaker = breakers.get(name);
+        if (!breaker.tryAcquirePermission()) {
+            throw new LLMBackendUnavailableException("Circuit breaker for LLM backend " + name + " is open");
+        }
+
+        Semaphore bulkhead = bulkheads.get(name);
+        TokenBucketRateLimiter rateLimiter = provider.getRateLimiter();
+        boolean rateLimitTaken = false;
+        try {
+            if (!rateLimiter.acquire(cost, deadline)) {
+                breaker.onIgnored();
+                throw new LLMServiceException(
+                        "LLM rate limit of " + name + " did not allow a call before the call deadline");
+            }
+            rateLimitTaken = true;
+            if (!bulkhead.tryAcquire(bulkheadSettings.getMaxWaitMs(), TimeUnit.MILLISECONDS)) {
+                rateLimiter.refund(cost);
+                breaker.onIgnored();
+                throw new LLMBackendUnavailableException("LLM backend " + name + " is at its limit of "
+                        + bulkheadSettings.getMaxConcurrentCalls() + " concurrent calls");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (rateLimitTaken) {
+                rateLimiter.refund(cost);
+            }
+            breaker.onIgnored();
+            throw new LLMServiceException("Interrupted while waiting to call LLM API", e);
+        }
+
+        String model = provider.modelFor(request);
+        long start = System.nanoTime();
+        try {
+            LLMCompletion completion = provider.complete(request);
+            long elapsedNanos = System.nanoTime() - start;
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            breaker.onSuccess(elapsedMs);
+            latencies.get(name).record(elapsedMs);
+            metrics.recordLlmCall(name, model, true, elapsedNanos);
+            metrics.countTokens(name, model, completion);
+            return completion;
+        } catch (RuntimeException e) {
+            long elapsedNanos = System.nanoTime() - start;
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+            metrics.recordLlmCall(name, model, false, elapsedNanos);
+            if (isBackendFailure(e)) {
+                breaker.onFailure(elapsedMs);
+            } else if (isRateLimited(e)) {
+                breaker.onIgnored();
+            } else {
+                // The backend answered; the request itself was rejected
+                breaker.onSuccess(elapsedMs);
+            }
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Race the primary against a duplicate sent to the secondary after the
+     * hedge delay. The loser is cancelled with an interrupt, which stops it
+     * while it waits for rate limit budget or a bulkhead slot. A blocking
+     * HTTP read cannot be interrupted, so a loser already on the wire keeps
+     * its bulkhead slot and breaker probe until its answer arrives or the
+     * socket timeout (llm.timeout) fires; its outcome is still recorded.
+     */
+    private LLMCompletion callHedged(LLMProvider primary, LLMProvider secondary, LLMRequest request,
+                                     int cost, long deadline) {
+        CompletionService<LLMCompletion> race = new ExecutorCompletionService<>(hedgeExecutor);
+        Future<LLMCompletion> first = race.submit(() -> call(primary, request, cost, deadline));
+
+        long delayMs = hedgeDelayMs(primary);
+        try {
+            Future<LLMCompletion> done = race.poll(Math.min(delayMs, remainingMs(deadline)), TimeUnit.MILLISECONDS);
+            if (done != null) {
+                return done.get();
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            first.cancel(true);
+            throw new LLMServiceException("Interrupted while waiting for LLM API", e);
+        }
+
+        if (remainingMs(deadline) <= 0) {
+            first.cancel(true);
+            throw new LLMServiceException("LLM call exceeded its deadline");
+        }
+
+        log.info("Hedging slow call to {} with {} after {} ms", primary.getName(), secondary.getName(), delayMs);
+        Future<LLMCompletion> second = race.submit(() -> call(secondary, request, cost, deadline));
+
+        // First success wins; fail only when both have failed
+        try {
+            LLMServiceException failure = null;
+            for (int pending = 2; pending > 0; pending--) {
+                Future<LLMCompletion> done = race.poll(remainingMs(deadline), TimeUnit.MILLISECONDS);
+                if (done == null) {
+                    throw new LLMServiceException("LLM call exceeded its deadline");
+                }
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    failure = unwrap(e);
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LLMServiceException("Interrupted while waiting for LLM API", e);
+        } finally {
+            first.cancel(true);
+            second.cancel(true);
+        }
+    }
+
+    /**
+     * Weighted random order without replacement (Efraimidis-Spirakis keys),
+     * with backends whose breaker is open moved to the end
+     */
+    private List<LLMProvider> weightedOrder() {
+        List<LLMProvider> candidates = routableProviders();
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<LLMProvider, Double> keys = new HashMap<>();
+        for (LLMProvider provider : candidates) {
+            keys.put(provider, Math.pow(random.nextDouble(), 1.0 / Math.max(1, provider.getWeight())));
+        }
+
+        List<LLMProvider> order = new ArrayList<>(candidates);
+        order.sort(Comparator.comparing((LLMProvider provider) ->
+                        breakers.get(provider.getName()).getState() == CircuitBreaker.State.OPEN)
+                .thenComparing(Comparator.comparingDouble((LLMProvider provider) -> keys.get(provider)).reversed()));
+        return order;
+    }
+
+    /**
+     * Backends with a positive weight, or all of them if none has one
+     */
+    private List<LLMProvider> routableProviders() {
+        List<LLMProvider> candidates = providers.stream()
+                .filter(provider -> provider.getWeight() > 0)
+                .toList();
+        return candidates.isEmpty() ? providers : candidates;
+    }
+
+    private long hedgeDelayMs(LLMProvider provider) {
+        long observed = latencies.get(provider.getName()).percentile(hedge.getPercentile(), hedge.getMinSamples());
+        return Math.max(hedge.getMinDelayMs(), observed < 0 ? hedge.getInitialDelayMs() : observed);
+    }
+
+    /**
+     * Delay before retrying a failed call, or null if it should not be retried
+     */
+    private Duration retryDelay(LLMServiceException e, int attempt) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RestClientResponseException responseException) {
+            HttpStatusCode status = responseException.getStatusCode();
+            if (status.value() != HttpStatus.TOO_MANY_REQUESTS.value() && !status.is5xxServerError()) {
+                return null;
+            }
+            Duration retryAfter = RateLimitHeaders.retryAfter(responseException.getResponseHeaders());
+            if (retryAfter != null) {
+                return retryAfter;
+            }
+        } else if (!(cause instanceof ResourceAccessException)) {
+            return null;
+        }
+
+        // Full jitter: uniform between 0 and the exponential cap
+        long cap = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(cap + 1));
+    }
+
+    /**
+     * 5xx answers and I/O errors (including timeouts) count against a backend
+     */
+    private boolean isBackendFailure(Throwable e) {
+        Throwable cause = e.getCause();
+        return cause instanceof ResourceAccessException
+                || cause instanceof RestClientResponseException responseException
+                        && responseException.getStatusCode().is5xxServerError();
+    }
+
+    private boolean isRateLimited(Throwable e) {
+        return e.getCause() instanceof RestClientResponseException responseException
+                && responseException.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    private LLMServiceException unwrap(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause instanceof LLMServiceException llmException
+                ? llmException
+                : new LLMServiceException("Failed to call LLM API", cause);
+    }
+
+    private long remainingMs(long deadline) {
+        return TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+    }
+
+    private String rootMessage(LLMServiceException e) {
+        return e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+    }
+
+    private void sleep(Duration delay) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LLMServiceException("Interrupted while backing off from LLM API", e);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.constant.AppConstants;
+import com.niyamr.pdfchecker.model.CompiledRuleSet;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.LocalRule;
+import com.niyamr.pdfchecker.model.RuleResult;
+import com.niyamr.pdfchecker.service.LocalRuleService;
+import com.niyamr.pdfchecker.util.AhoCorasickMatcher;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Implementation of local rule checks. Phrase rules of a rule set share one
+ * precompiled Aho-Corasick pass over the text; date and signature patterns
+ * are scanned at most once each. A rule is only decided when the text
+ * settles it; everything else is left to the LLM.
+ */
+@Slf4j
+@Service
+public class LocalRuleServiceImpl implements LocalRuleService {
+
+    private static final String MONTHS = "jan(?:uary)?|feb(?:ruary)?|mar(?:ch)?|apr(?:il)?|may|june?|july?"
+            + "|aug(?:ust)?|sep(?:t(?:ember)?)?|oct(?:ober)?|nov(?:ember)?|dec(?:ember)?";
+
+    private static final Pattern DATE = Pattern.compile(
+            "\\b(?:\\d{4}-\\d{1,2}-\\d{1,2}"
+                    + "|\\d{1,2}([/.-])\\d{1,2}\\1\\d{4}"
+                    + "|\\d{1,2}/\\d{1,2}/\\d{2}"
+                    + "|(?:" + MONTHS + ")\\.?\\s+\\d{1,2}(?:st|nd|rd|th)?,?\\s+\\d{4}"
+                    + "|\\d{1,2}(?:st|nd|rd|th)?\\s+(?:day\\s+of\\s+)?(?:" + MONTHS + ")\\.?,?\\s+\\d{4})\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern SIGNATURE_LINE = Pattern.compile(
+            "^[ \\t]*(?:authori[sz]ed\\s+)?(?:signature|signed(?:\\s+by)?|sign\\s+here)[ \\t]*(?::|_{3,}|\\.{3,})[^\\n]{0,60}$"
+                    + "|_{5,}[ \\t]*\\r?\\n[ \\t]*(?:authori[sz]ed\\s+)?(?:signature|signed)\\b",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    private static final int SNIPPET_CHARS = 100;
+
+    @Value("${rule-evaluation.local-checks-enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public List<RuleResult> evaluate(ExtractedDocument document, CompiledRuleSet ruleSet) {
+        List<String> rules = ruleSet.getRepresentatives();
+        List<RuleResult> results = new ArrayList<>(Collections.nCopies(rules.size(), null));
+        String text = document.getText();
+        if (!enabled || text == null || text.isBlank()) {
+            // Without text, absence of a phrase proves nothing
+            return results;
+        }
+
+        List<LocalRule> compiled = ruleSet.getLocalRules();
+        if (compiled.stream().allMatch(localRule -> localRule == null)) {
+            return results;
+        }
+
+        int[][] phraseMatches = findPhrases(text, ruleSet.getPhraseMatcher(), compiled);
+        int[] date = null;
+        int[] signature = null;
+        boolean dateScanned = false;
+        boolean signatureScanned = false;
+
+        int phraseIndex = 0;
+        int decided = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            LocalRule localRule = compiled.get(i);
+            if (localRule == null) {
+                continue;
+            }
+
+            RuleResult result = switch (localRule.getKind()) {
+                case PHRASE -> phraseResult(document, rules.get(i), localRule, phraseMatches[phraseIndex++]);
+                case DATE -> {
+                    if (!dateScanned) {
+                        date = findDate(text);
+                        dateScanned = true;
+                    }
+                    yield date == null ? null : found(document, rules.get(i), date, 95,
+                            "The document contains a date.");
+                }
+                case SIGNATURE -> {
+                    if (!signatureScanned) {
+                        signature = find(SIGNATURE_LINE, text);
+                        signatureScanned = true;
+                    }
+                    yield signature == null ? null : found(document, rules.get(i), signature, 90,
+                            "The document contains a signature line.");
+                }
+            };
+            if (result != null) {
+                results.set(i, result);
+                decided++;
+            }
+        }
+
+        log.info("Decided {} of {} rules locally", decided, rules.size());
+        return results;
+    }
+
+    /**
+     * First whole-word match of each phrase, or null where a phrase is absent
+     */
+    private int[][] findPhrases(String text, AhoCorasickMatcher matcher, List<LocalRule> localRules) {
+        int phraseCount = (int) localRules.stream()
+                .filter(localRule -> localRule != null && localRule.getKind() == LocalRule.Kind.PHRASE)
+                .count();
+        int[][] matches = new int[phraseCount][];
+        if (matcher == null) {
+            return matches;
+        }
+
+        int[] remaining = {phraseCount};
+        matcher.search(text, (pattern, start, end) -> {
+            if (matches[pattern] == null && isWholeWord(text, start, end)) {
+                matches[pattern] = new int[] {start, end};
+                remaining[0]--;
+            }
+            return remaining[0] > 0;
+        });
+        return matches;
+    }
+
+    private RuleResult phraseResult(ExtractedDocument document, String rule, LocalRule localRule, int[] match) {
+        if (match == null) {
+            // Extraction can split, hyphenate or ligate words, so absence is left to the LLM
+            return null;
+        }
+
+        String phrase = localRule.getPhrase();
+        return localRule.isNegated()
+                ? found(document, rule, match, AppConstants.STATUS_FAIL, 100,
+                        "The prohibited phrase \"" + phrase + "\" appears in the document.")
+                : found(document, rule, match, AppConstants.STATUS_PASS, 100,
+                        "The required phrase \"" + phrase + "\" appears in the document.");
+    }
+
+    private RuleResult found(ExtractedDocument document, String rule, int[] match, int confidence, String reasoning) {
+        return found(document, rule, match, AppConstants.STATUS_PASS, confidence, reasoning);
+    }
+
+    private RuleResult found(ExtractedDocument document, String rule, int[] match, String status,
+                             int confidence, String reasoning) {
+        return RuleResult.builder()
+                .rule(rule)
+                .status(status)
+                .evidence(snippet(document.getText(), match[0], match[1]))
+                .reasoning(reasoning)
+                .confidence(confidence)
+                .source(AppConstants.SOURCE_LOCAL)
+                .evidenceStart(match[0])
+                .evidenceEnd(match[1])
+                .evidencePage(pageOf(document, match[0]))
+                .build();
+    }
+
+    private int[] findDate(String text) {
+        Matcher matcher = DATE.matcher(text);
+        while (matcher.find()) {
+            if (isPlausibleDate(matcher.group())) {
+                return new int[] {matcher.start(), matcher.end()};
+            }
+        }
+        return null;
+    }
+
+    private int[] find(Pattern pattern, String text) {
+        Matcher matcher = pattern.matcher(text);
+        return matcher.find() ? new int[] {matcher.start(), matcher.end()} : null;
+    }
+
+    /**
+     * Reject numeric matches that cannot be a day and month, e.g. phone numbers
+     */
+    private boolean isPlausibleDate(String value) {
+        String[] parts = value.split("\\D+");
+        if (parts.length != 3 || parts[0].isEmpty()) {
+            return true;
+        }
+        int first = Integer.parseInt(parts[0]);
+        int second = Integer.parseInt(parts[1]);
+        int third = Integer.parseInt(parts[2]);
+        if (parts[0].length() == 4) {
+            return second >= 1 && second <= 12 && third >= 1 && third <= 31;
+        }
+        return first >= 1 && second >= 1 && first <= 31 && second <= 31 && Math.min(first, second) <= 12;
+    }
+
+    private boolean isWholeWord(String text, int start, int end) {
+        boolean startOk = start == 0
+                || !Character.isLetterOrDigit(text.charAt(start))
+                || !Character.isLetterOrDigit(text.charAt(start - 1));
+        boolean endOk = end == text.length()
+                || !Character.isLetterOrDigit(text.charAt(end - 1))
+                || !Character.isLetterOrDigit(text.charAt(end));
+        return startOk && endOk;
+    }
+
+    /**
+     * The line around a match, trimmed to a readable length
+     */
+    private String snippet(String text, int start, int end) {
+        int from = Math.max(0, start - SNIPPET_CHARS);
+        int lineStart = text.lastIndexOf('\n', start - 1);
+        from = Math.max(from, lineStart + 1);
+
+        int to = Math.min(text.length(), end + SNIPPET_CHARS);
+        int lineEnd = text.indexOf('\n', end);
+        if (lineEnd >= 0) {
+            to = Math.min(to, lineEnd);
+        }
+        return StringUtils.normalizeSpace(text.substring(from, Math.max(to, end)));
+    }
+
+    /**
+     * Page (1-based) containing the offset; the text is the pages joined in order
+     */
+    private Integer pageOf(ExtractedDocument document, int offset) {
+        List<String> pageTexts = document.getPageTexts();
+        if (pageTexts == null) {
+            return null;
+        }
+        int pageEnd = 0;
+        for (int page = 0; page < pageTexts.size(); page++) {
+            pageEnd += pageTexts.get(page).length();
+            if (offset < pageEnd) {
+                return page + 1;
+            }
+        }
+        return pageTexts.isEmpty() ? null : pageTexts.size();
+    }
+}
@@ -0,0 +1,155 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.niyamr.pdfchecker.exception.LLMServiceException;
+import com.niyamr.pdfchecker.model.BatchResult;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batch backend for the OpenAI Batch API and compatible providers such as
+ * Groq. The request lines are uploaded as a JSONL file, the batch runs
+ * against the chat completions endpoint, and results come back as output
+ * and error files.
+ */
+@Slf4j
+public class OpenAIBatchProvider extends AbstractHttpBatchProvider {
+
+    private static final String ENDPOINT = "/v1/chat/completions";
+
+    private final String completionWindow;
+
+    public OpenAIBatchProvider(String name, String baseUrl, String apiKey, String model,
+                               String completionWindow, RestTemplate restTemplate) {
+        super(name, baseUrl, apiKey, model, restTemplate);
+        this.completionWindow = completionWindow;
+    }
+
+    @Override
+    public String toRequestLine(String customId, LLMRequest request) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("model", modelFor(request));
+        body.put("max_tokens", request.getMaxTokens());
+        body.put("temperature", request.getTemperature());
+        body.put("messages", List.of(
+            Map.of("role", "system", "content", request.getSystemPrompt()),
+            Map.of("role", "user", "content", request.getUserPrompt())
+        ));
+        body.put("response_format", Map.of("type", "json_object"));
+
+        return toJson(Map.of(
+                "custom_id", customId,
+                "method", "POST",
+                "url", ENDPOINT,
+                "body", body));
+    }
+
+    @Override
+    public String submit(List<String> requestLines) {
+        byte[] content = (String.join("\n", requestLines) + "\n").getBytes(StandardCharsets.UTF_8);
+        MultiValueMap<String, Object> upload = new LinkedMultiValueMap<>();
+        upload.add("purpose", "batch");
+        upload.add("file", new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return "audit.jsonl";
+            }
+        });
+
+        HttpHeaders uploadHeaders = headers();
+        uploadHeaders.setContentType(MediaType.MULTIPART_FORM_DATA);
+        String fileId = exchange(HttpMethod.POST, baseUrl + "/files", upload, uploadHeaders).path("id").asText();
+        if (fileId.isEmpty()) {
+            throw new LLMServiceException("Batch input upload returned no file id");
+        }
+
+        HttpHeaders headers = headers();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        JsonNode batch = exchange(HttpMethod.POST, baseUrl + "/batches", Map.of(
+                "input_file_id", fileId,
+                "endpoint", ENDPOINT,
+                "completion_window", completionWindow), headers);
+        String batchId = batch.path("id").asText();
+        if (batchId.isEmpty()) {
+            throw new LLMServiceException("Batch creation returned no batch id");
+        }
+
+        log.info("Submitted batch {} with {} requests to {}", batchId, requestLines.size(), getName());
+        return batchId;
+    }
+
+    @Override
+    public State getState(String batchId) {
+        JsonNode batch = getBatch(batchId);
+        String status = batch.path("status").asText();
+        return switch (status) {
+            case "completed", "expired", "cancelled" -> State.ENDED;
+            case "failed" -> {
+                log.error("Batch {} failed at {}: {}", batchId, getName(),
+                        batch.path("errors").path("data").path(0).path("message").asText("no details"));
+                yield State.FAILED;
+            }
+            default -> State.IN_PROGRESS;
+        };
+    }
+
+    @Override
+    public List<BatchResult> getResults(String batchId) {
+        JsonNode batch = getBatch(batchId);
+        List<BatchResult> results = new ArrayList<>();
+        // Successful requests land in the output file, failed ones in the error file
+        for (String field : List.of("output_file_id", "error_file_id")) {
+            String fileId = batch.path(field).asText();
+            if (!fileId.isEmpty() && !"null".equals(fileId)) {
+                results.addAll(readResults(baseUrl + "/files/" + fileId + "/content"));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    protected HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(apiKey);
+        return headers;
+    }
+
+    @Override
+    protected BatchResult parseResultLine(JsonNode line) {
+        String customId = line.path("custom_id").asText();
+        if (customId.isEmpty()) {
+            return null;
+        }
+
+        JsonNode response = line.path("response");
+        JsonNode body = response.path("body");
+        int statusCode = response.path("status_code").asInt(0);
+        if (statusCode == 200) {
+            JsonNode content = body.path("choices").path(0).path("message").path("content");
+            if (content.isTextual()) {
+                return BatchResult.builder().customId(customId).content(content.asText()).build();
+            }
+        }
+
+        String error = line.path("error").path("message").asText(
+                body.path("error").path("message").asText("Request failed with status " + statusCode));
+        return BatchResult.builder().customId(customId).error(error).build();
+    }
+
+    private JsonNode getBatch(String batchId) {
+        return exchange(HttpMethod.GET, baseUrl + "/batches/" + batchId, null, headers());
+    }
+}
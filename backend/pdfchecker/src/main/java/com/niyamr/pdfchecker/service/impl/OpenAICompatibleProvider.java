@@ -0,0 +1,130 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.niyamr.pdfchecker.config.LlmRoutingProperties;
+import com.niyamr.pdfchecker.exception.LLMServiceException;
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.util.JsonObjectAccumulator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Backend for the OpenAI chat completions API and compatible providers
+ * such as Groq. These cache long prompt prefixes automatically, so the
+ * document goes before the rule. In streaming mode the answer is read
+ * delta by delta and the stream is cut once the verdict JSON is closed.
+ *
+ * Streaming trades usage accuracy for latency: usage comes in a chunk
+ * after the answer, so the stream is read a few events past the verdict
+ * to catch it. If the model keeps talking instead, the stream is cut,
+ * prompt tokens fall back to the local estimate and cached tokens are
+ * unknown.
+ */
+@Slf4j
+public class OpenAICompatibleProvider extends AbstractHttpLLMProvider {
+
+    /**
+     * Events read after the verdict closes while waiting for usage
+     */
+    private static final int USAGE_GRACE_EVENTS = 4;
+
+    public OpenAICompatibleProvider(LlmRoutingProperties.Backend backend, RestTemplate restTemplate,
+                                    boolean streaming) {
+        super(backend, restTemplate, streaming);
+    }
+
+    @Override
+    public LLMCompletion complete(LLMRequest request) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setBearerAuth(apiKey);
+            
+            Map<String, Object> requestBody = new HashMap<>();
+            requestBody.put("model", modelFor(request));
+            requestBody.put("max_tokens", request.getMaxTokens());
+            requestBody.put("temperature", request.getTemperature());
+            requestBody.put("messages", List.of(
+                Map.of("role", "system", "content", request.getSystemPrompt()),
+                Map.of("role", "user", "content", request.getUserPrompt())
+            ));
+            
+            log.debug("Calling OpenAI API ({}): {}", getName(), apiUrl);
+            if (streaming) {
+                // Groq rejects JSON mode on streams; the accumulator skips any prose instead
+                return completeStreaming(request, headers, requestBody);
+            }
+            
+            // Request JSON response format
+            requestBody.put("response_format", Map.of("type", "json_object"));
+            ResponseEntity<String> response = post(headers, requestBody);
+            
+            if (response.getStatusCode() == HttpStatus.OK) {
+                JsonNode jsonNode = objectMapper.readTree(response.getBody());
+                JsonNode usage = jsonNode.path("usage");
+                return LLMCompletion.builder()
+                        .provider(getName())
+                        .model(modelFor(request))
+                        .content(jsonNode.get("choices").get(0).get("message").get("content").asText())
+                        .promptTokens(intOrNull(usage.path("prompt_tokens")))
+                        .cachedPromptTokens(intOrNull(usage.path("prompt_tokens_details").path("cached_tokens")))
+                        .build();
+            } else {
+                throw new LLMServiceException("OpenAI API returned status: " + response.getStatusCode());
+            }
+            
+        } catch (Exception e) {
+            log.error("Failed to call OpenAI API ({})", getName(), e);
+            throw new LLMServiceException("Failed to call OpenAI API", e);
+        }
+    }
+
+    private LLMCompletion completeStreaming(LLMRequest request, HttpHeaders headers,
+                                            Map<String, Object> requestBody) {
+        requestBody.put("stream", true);
+        // Ask for a final usage chunk; Groq sends x_groq.usage on its last chunk instead
+        requestBody.put("stream_options", Map.of("include_usage", true));
+        
+        JsonObjectAccumulator verdict = new JsonObjectAccumulator();
+        LLMCompletion.LLMCompletionBuilder completion = LLMCompletion.builder()
+                .provider(getName())
+                .model(modelFor(request));
+        AtomicBoolean usageSeen = new AtomicBoolean();
+        AtomicInteger eventsAfterVerdict = new AtomicInteger();
+        postStreaming(headers, requestBody, data -> {
+            JsonNode chunk = objectMapper.readTree(data);
+            JsonNode usage = chunk.path("usage");
+            if (!usage.isObject()) {
+                usage = chunk.path("x_groq").path("usage");
+            }
+            if (usage.isObject()) {
+                usageSeen.set(true);
+                completion.promptTokens(intOrNull(usage.path("prompt_tokens")))
+                        .cachedPromptTokens(intOrNull(usage.path("prompt_tokens_details").path("cached_tokens")));
+            }
+            JsonNode delta = chunk.path("choices").path(0).path("delta").path("content");
+            if (delta.isTextual()) {
+                verdict.append(delta.asText());
+            }
+            return verdict.isComplete()
+                    && (usageSeen.get() || eventsAfterVerdict.incrementAndGet() > USAGE_GRACE_EVENTS);
+        });
+        
+        if (!usageSeen.get()) {
+            log.debug("Stream of {} cut before usage arrived, using the local prompt estimate", getName());
+            completion.promptTokens(request.getEstimatedPromptTokens());
+        }
+        return completion.content(verdict.getText()).build();
+    }
+}
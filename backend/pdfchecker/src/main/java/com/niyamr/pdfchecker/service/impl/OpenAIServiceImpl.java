@@ -1,37 +1,38 @@
 package com.niyamr.pdfchecker.service.impl;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.niyamr.pdfchecker.exception.LLMServiceException;
+import com.niyamr.pdfchecker.model.LLMCompletion;
 import com.niyamr.pdfchecker.model.LLMResponse;
 
 import com.niyamr.pdfchecker.constant.AppConstants;
 import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.model.TokenBudget;
+import com.niyamr.pdfchecker.service.LLMRouter;
 import com.niyamr.pdfchecker.service.LLMService;
+import com.niyamr.pdfchecker.service.TokenBudgetService;
+import com.niyamr.pdfchecker.service.VerdictCacheService;
+import com.niyamr.pdfchecker.util.PipelineMetrics;
 import com.niyamr.pdfchecker.util.PromptBuilder;
+import com.niyamr.pdfchecker.util.SingleFlight;
+import com.niyamr.pdfchecker.util.VerdictParser;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 /**
- * Implementation of LLM service supporting both OpenAI and Anthropic APIs
+ * Implementation of LLM service. Builds prompts and parses verdicts;
+ * provider calls go through the {@link LLMRouter}.
  */
 @Slf4j
 @Service
 public class OpenAIServiceImpl implements LLMService {
     
-    @Value("${llm.api-key}")
-    private String apiKey;
-    
-    @Value("${llm.api-url}")
-    private String apiUrl;
-    
     @Value("${llm.model}")
     private String model;
     
@@ -41,31 +42,72 @@ public class OpenAIServiceImpl implements LLMService {
     @Value("${llm.temperature}")
     private Double temperature;
     
-    @Value("${llm.provider:openai}")
-    private String provider;
+    @Value("${llm.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+    
+    @Value("${llm.coalescing.max-wait-ms:90000}")
+    private long coalescingMaxWaitMs;
     
-    private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
     private final PromptBuilder promptBuilder;
+    private final LLMRouter llmRouter;
+    private final VerdictCacheService verdictCache;
+    private final TokenBudgetService tokenBudgetService;
+    private final PipelineMetrics metrics;
+    private SingleFlight<String, LLMResponse> inFlightChecks;
     
-    public OpenAIServiceImpl() {
-        this.restTemplate = new RestTemplate();
-        this.objectMapper = new ObjectMapper();
+    public OpenAIServiceImpl(LLMRouter llmRouter,
+                             VerdictCacheService verdictCache,
+                             TokenBudgetService tokenBudgetService,
+                             PipelineMetrics metrics) {
         this.promptBuilder = new PromptBuilder();
+        this.llmRouter = llmRouter;
+        this.verdictCache = verdictCache;
+        this.tokenBudgetService = tokenBudgetService;
+        this.metrics = metrics;
+    }
+    
+    @PostConstruct
+    void init() {
+        inFlightChecks = new SingleFlight<>(Duration.ofMillis(coalescingMaxWaitMs));
+        metrics.bindSingleFlight("rule-check", inFlightChecks);
     }
     
     @Override
     public LLMResponse checkRule(String documentText, String rule) {
-        log.info("Checking rule with LLM ({}): {}", provider, rule);
+        List<String> models = getAnsweringModels();
+        LLMResponse cached = getCachedVerdict(documentText, rule, models);
+        if (cached != null) {
+            log.info("Verdict cache hit for rule: {}", rule);
+            return cached;
+        }
+        
+        if (!coalescingEnabled) {
+            return callRule(documentText, rule);
+        }
+        // Identical checks arriving while this one is in flight share its answer
+        String flightKey = verdictCache.buildKey(documentText, rule, model, temperature);
+        return inFlightChecks.execute(flightKey,
+                () -> getCachedVerdict(documentText, rule, models),
+                () -> callRule(documentText, rule));
+    }
+    
+    /**
+     * Ask the LLM for one verdict and cache it
+     */
+    private LLMResponse callRule(String documentText, String rule) {
+        log.info("Checking rule with LLM: {}", rule);
         
         try {
             LLMRequest request = buildRequest(documentText, rule);
-            String responseText = callLLMApi(request);
-            LLMResponse response = parseResponse(responseText);
+            LLMCompletion completion = llmRouter.complete(request);
+            LLMResponse response = parseResponse(completion.getContent());
+            response.setPromptTokens(completion.getPromptTokens());
+            response.setCachedPromptTokens(completion.getCachedPromptTokens());
             
             log.info("LLM check completed - Status: {}, Confidence: {}", 
                     response.getStatus(), response.getConfidence());
             
+            cacheVerdict(documentText, rule, completion, response);
             return response;
             
         } catch (Exception e) {
@@ -80,131 +122,163 @@ public class OpenAIServiceImpl implements LLMService {
         }
     }
     
+    @Override
+    public List<LLMResponse> checkRules(String documentText, List<String> rules) {
+        List<LLMResponse> responses = new ArrayList<>(Collections.nCopies(rules.size(), null));
+        
+        // Serve what we can from the verdict cache and batch only the rest
+        List<String> models = getAnsweringModels();
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            LLMResponse cached = getCachedVerdict(documentText, rules.get(i), models);
+            if (cached != null) {
+                responses.set(i, cached);
+            } else {
+                pending.add(i);
+            }
+        }
+        
+        if (pending.size() > 1) {
+            log.info("Checking {} rules with LLM in one batch ({} cached)", 
+                    pending.size(), rules.size() - pending.size());
+            
+            List<String> pendingRules = pending.stream().map(rules::get).toList();
+            List<LLMResponse> batchResponses = new ArrayList<>(Collections.nCopies(pendingRules.size(), null));
+            LLMCompletion completion = null;
+            try {
+                LLMRequest request = buildBatchRequest(documentText, pendingRules);
+                completion = llmRouter.complete(request);
+                parseBatchResponse(completion.getContent(), batchResponses);
+            } catch (Exception e) {
+                log.error("Batch rule check failed, falling back to per-rule checks", e);
+            }
+            
+            for (int i = 0; i < pending.size(); i++) {
+                LLMResponse response = batchResponses.get(i);
+                if (response != null) {
+                    int index = pending.get(i);
+                    responses.set(index, response);
+                    cacheVerdict(documentText, rules.get(index), completion, response);
+                }
+            }
+        }
+        
+        // Rules the batch answer did not cover are left for the caller's per-rule path
+        long uncovered = responses.stream().filter(response -> response == null).count();
+        log.info("Batch check completed - {} of {} rules need a per-rule check", 
+                uncovered, rules.size());
+        
+        return responses;
+    }
+    
+    /**
+     * Models a request may be answered with: the configured model unless a
+     * backend overrides it
+     */
+    @Override
+    public List<String> getAnsweringModels() {
+        return llmRouter.modelsFor(LLMRequest.builder().model(model).build());
+    }
+    
+    /**
+     * A verdict cached under any model that may answer; routing is free to
+     * pick any of them, so each is as good as a fresh call
+     */
+    @Override
+    public LLMResponse getCachedVerdict(String documentText, String rule, List<String> models) {
+        return verdictCache.getAny(models.stream()
+                .map(candidate -> verdictCache.buildKey(documentText, rule, candidate, temperature))
+                .toList());
+    }
+    
+    /**
+     * Cache a verdict under the model that actually produced it
+     */
+    private void cacheVerdict(String documentText, String rule, LLMCompletion completion, LLMResponse response) {
+        String answeredBy = completion.getModel() != null ? completion.getModel() : model;
+        verdictCache.put(verdictCache.buildKey(documentText, rule, answeredBy, temperature), response);
+    }
+    
     @Override
     public LLMRequest buildRequest(String documentText, String rule) {
+        return metrics.time(PipelineMetrics.STAGE_PROMPT_BUILD, () -> prepareRequest(documentText, rule));
+    }
+    
+    private LLMRequest prepareRequest(String documentText, String rule) {
+        String systemPrompt = promptBuilder.buildSystemPrompt();
+        TokenBudget budget = tokenBudgetService.plan(
+                systemPrompt + promptBuilder.buildUserPrompt("", rule), maxTokens);
+        String fittedText = tokenBudgetService.fitToTokens(documentText, budget.getDocumentTokens());
+        String documentPrompt = promptBuilder.buildDocumentPrompt(fittedText);
+        String rulePrompt = promptBuilder.buildRulePrompt(rule);
+        
         return LLMRequest.builder()
                 .model(model)
-                .documentText(documentText)
+                .documentText(fittedText)
                 .rule(rule)
-                .maxTokens(maxTokens)
+                .maxTokens(budget.getOutputTokens())
                 .temperature(temperature)
-                .systemPrompt(promptBuilder.buildSystemPrompt())
-                .userPrompt(promptBuilder.buildUserPrompt(documentText, rule))
+                .systemPrompt(systemPrompt)
+                .userPrompt(documentPrompt + rulePrompt)
+                .documentPrompt(documentPrompt)
+                .rulePrompt(rulePrompt)
+                .estimatedPromptTokens(budget.getFixedTokens() + tokenBudgetService.estimateTokens(fittedText))
                 .build();
     }
     
     @Override
     public LLMResponse parseResponse(String responseText) {
-        try {
-            JsonNode jsonNode = objectMapper.readTree(responseText);
-            
-            return LLMResponse.builder()
-                    .status(jsonNode.get("status").asText())
-                    .evidence(jsonNode.get("evidence").asText())
-                    .reasoning(jsonNode.get("reasoning").asText())
-                    .confidence(jsonNode.get("confidence").asInt())
-                    .rawResponse(responseText)
-                    .build();
-                    
-        } catch (Exception e) {
-            log.error("Failed to parse LLM response", e);
-            throw new LLMServiceException("Failed to parse LLM response", e);
+        LLMResponse response = metrics.time(PipelineMetrics.STAGE_VERDICT_PARSE,
+                () -> VerdictParser.parse(responseText));
+        if (response == null) {
+            log.error("No valid verdict in LLM response: {}", responseText);
+            throw new LLMServiceException("Failed to parse LLM response");
         }
+        return response;
     }
     
     /**
-     * Call LLM API - supports both OpenAI and Anthropic
+     * Build a single request covering all rules
      */
-    private String callLLMApi(LLMRequest request) {
-        try {
-            if ("anthropic".equalsIgnoreCase(provider)) {
-                return callAnthropicApi(request);
-            } else {
-                return callOpenAIApi(request);
-            }
-        } catch (Exception e) {
-            log.error("Failed to call LLM API", e);
-            throw new LLMServiceException("Failed to call LLM API", e);
-        }
+    private LLMRequest buildBatchRequest(String documentText, List<String> rules) {
+        return metrics.time(PipelineMetrics.STAGE_PROMPT_BUILD, () -> prepareBatchRequest(documentText, rules));
     }
     
-    /**
-     * Call OpenAI API (GPT)
-     */
-    private String callOpenAIApi(LLMRequest request) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", request.getModel());
-            requestBody.put("max_tokens", request.getMaxTokens());
-            requestBody.put("temperature", request.getTemperature());
-            requestBody.put("messages", List.of(
-                Map.of("role", "system", "content", request.getSystemPrompt()),
-                Map.of("role", "user", "content", request.getUserPrompt())
-            ));
-            
-            // Request JSON response format
-            requestBody.put("response_format", Map.of("type", "json_object"));
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            
-            log.debug("Calling OpenAI API: {}", apiUrl);
-            ResponseEntity<String> response = restTemplate.exchange(
-                    apiUrl, HttpMethod.POST, entity, String.class
-            );
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                return jsonNode.get("choices").get(0).get("message").get("content").asText();
-            } else {
-                throw new LLMServiceException("OpenAI API returned status: " + response.getStatusCode());
-            }
-            
-        } catch (Exception e) {
-            log.error("Failed to call OpenAI API", e);
-            throw new LLMServiceException("Failed to call OpenAI API", e);
-        }
+    private LLMRequest prepareBatchRequest(String documentText, List<String> rules) {
+        String[] ruleArray = rules.toArray(new String[0]);
+        String systemPrompt = promptBuilder.buildBatchSystemPrompt();
+        TokenBudget budget = tokenBudgetService.plan(
+                systemPrompt + promptBuilder.buildBatchPrompt("", ruleArray), maxTokens * rules.size());
+        String fittedText = tokenBudgetService.fitToTokens(documentText, budget.getDocumentTokens());
+        String documentPrompt = promptBuilder.buildDocumentPrompt(fittedText);
+        String rulesPrompt = promptBuilder.buildBatchRulesPrompt(ruleArray);
+        
+        return LLMRequest.builder()
+                .model(model)
+                .documentText(fittedText)
+                .maxTokens(budget.getOutputTokens())
+                .temperature(temperature)
+                .systemPrompt(systemPrompt)
+                .userPrompt(documentPrompt + rulesPrompt)
+                .documentPrompt(documentPrompt)
+                .rulePrompt(rulesPrompt)
+                .estimatedPromptTokens(budget.getFixedTokens() + tokenBudgetService.estimateTokens(fittedText))
+                .build();
     }
     
     /**
-     * Call Anthropic API (Claude)
+     * Parse a batch answer into the response slots; see
+     * {@link VerdictParser#parseBatch(String, List)}
      */
-    private String callAnthropicApi(LLMRequest request) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("x-api-key", apiKey);
-            headers.set("anthropic-version", "2023-06-01");
-            
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", request.getModel());
-            requestBody.put("max_tokens", request.getMaxTokens());
-            requestBody.put("temperature", request.getTemperature());
-            requestBody.put("system", request.getSystemPrompt());
-            requestBody.put("messages", List.of(
-                Map.of("role", "user", "content", request.getUserPrompt())
-            ));
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-            
-            log.debug("Calling Anthropic API: {}", apiUrl);
-            ResponseEntity<String> response = restTemplate.exchange(
-                    apiUrl, HttpMethod.POST, entity, String.class
-            );
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                JsonNode jsonNode = objectMapper.readTree(response.getBody());
-                return jsonNode.get("content").get(0).get("text").asText();
-            } else {
-                throw new LLMServiceException("Anthropic API returned status: " + response.getStatusCode());
-            }
-            
-        } catch (Exception e) {
-            log.error("Failed to call Anthropic API", e);
-            throw new LLMServiceException("Failed to call Anthropic API", e);
+    private void parseBatchResponse(String responseText, List<LLMResponse> responses) {
+        boolean parsed = metrics.time(PipelineMetrics.STAGE_VERDICT_PARSE,
+                () -> VerdictParser.parseBatch(responseText, responses));
+        if (!parsed) {
+            throw new LLMServiceException("Batch response does not contain a results array");
+        }
+        long missing = responses.stream().filter(response -> response == null).count();
+        if (missing > 0) {
+            log.warn("Batch answer left {} of {} rules without a valid verdict", missing, responses.size());
         }
     }
-}
\ No newline at end of file
+}
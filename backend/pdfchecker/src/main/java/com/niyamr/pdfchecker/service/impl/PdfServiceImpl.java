@@ -1,54 +1,180 @@
 package com.niyamr.pdfchecker.service.impl;
 
 import com.niyamr.pdfchecker.constant.AppConstants;
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.niyamr.pdfchecker.exception.PdfProcessingException;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.service.DocumentCacheService;
 import com.niyamr.pdfchecker.service.PdfService;
 import com.niyamr.pdfchecker.service.ValidationService;
+import com.niyamr.pdfchecker.util.HashUtils;
+import com.niyamr.pdfchecker.util.PipelineMetrics;
+import io.micrometer.core.instrument.Timer;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
  * Implementation of PDF service
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class PdfServiceImpl implements PdfService {
 
+    private static final long MB = 1024L * 1024L;
+
     private final ValidationService validationService;
+    private final DocumentCacheService documentCacheService;
+    private final ExecutorService extractionExecutor;
+    private final PipelineMetrics metrics;
 
-    @Override
-    public String extractText(MultipartFile file) {
-        log.info("Extracting text from PDF: {}", file.getOriginalFilename());
+    @Value("${pdf.temp-dir:${java.io.tmpdir}/pdfchecker-uploads}")
+    private String tempDir;
+
+    @Value("${pdf.scratch.max-memory-mb:1}")
+    private long scratchMaxMemoryMb;
+
+    @Value("${pdf.scratch.max-storage-mb:200}")
+    private long scratchMaxStorageMb;
+
+    @Value("${pdf.parallel.min-pages:8}")
+    private int parallelMinPages;
+
+    @Value("${pdf.parallel.pages-per-worker:4}")
+    private int pagesPerWorker;
+
+    private Path tempPath;
+    private MemoryUsageSetting scratchSetting;
 
+    public PdfServiceImpl(ValidationService validationService,
+                          DocumentCacheService documentCacheService,
+                          @Qualifier("pdfExtractionExecutor") ExecutorService extractionExecutor,
+                          PipelineMetrics metrics) {
+        this.validationService = validationService;
+        this.documentCacheService = documentCacheService;
+        this.extractionExecutor = extractionExecutor;
+        this.metrics = metrics;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        tempPath = Files.createDirectories(Paths.get(tempDir));
+        // Keep PDFBox scratch buffers small on heap and overflow to temp files
+        scratchSetting = MemoryUsageSetting
+                .setupMixed(scratchMaxMemoryMb * MB, scratchMaxStorageMb * MB)
+                .setTempDir(tempPath.toFile());
+    }
+
+    @Override
+    public PdfUpload storeUpload(MultipartFile file) {
         validatePdfFile(file);
 
-        try (InputStream inputStream = file.getInputStream();
-             PDDocument document = Loader.loadPDF(inputStream.readAllBytes())) {
+        Path path = null;
+        Timer.Sample sample = metrics.start();
+        try {
+            path = Files.createTempFile(tempPath, "upload-", AppConstants.PDF_EXTENSION);
+
+            // Hash while streaming to disk so the digest costs no extra pass
+            MessageDigest digest = HashUtils.newSha256();
+            long size;
+            try (InputStream inputStream = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(inputStream, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            metrics.recordUploadBytes(size);
+
+            return PdfUpload.builder()
+                    .fileName(file.getOriginalFilename())
+                    .path(path)
+                    .size(size)
+                    .contentHash(HashUtils.toHex(digest.digest()))
+                    .build();
+
+        } catch (IOException e) {
+            log.error("Failed to store PDF upload", e);
+            deleteQuietly(path);
+            throw new PdfProcessingException("Failed to read PDF file", e);
+        } finally {
+            metrics.stop(sample, PipelineMetrics.STAGE_PDF_STORE);
+        }
+    }
+
+    @Override
+    public ExtractedDocument extractDocument(MultipartFile file) {
+        try (PdfUpload upload = storeUpload(file)) {
+            return extractDocument(upload);
+        }
+    }
+
+    @Override
+    public ExtractedDocument extractDocument(PdfUpload upload) {
+        log.info("Extracting text from PDF: {}", upload.getFileName());
+
+        ExtractedDocument cached = documentCacheService.get(upload.getContentHash());
+        if (cached != null) {
+            log.info("Extracted text cache hit for {} ({} pages)", upload.getFileName(), cached.getPageCount());
+            return cached.toBuilder()
+                    .fileName(upload.getFileName())
+                    .build();
+        }
+
+        Timer.Sample loadSample = metrics.start();
+        try (PDDocument document = loadDocument(upload.getPath())) {
+            metrics.stop(loadSample, PipelineMetrics.STAGE_PDF_LOAD);
 
-            if (document.getNumberOfPages() > AppConstants.MAX_PAGES) {
+            int pageCount = document.getNumberOfPages();
+            if (pageCount > AppConstants.MAX_PAGES) {
                 throw new PdfProcessingException(
                         String.format("PDF has too many pages: %d (max: %d)",
-                                document.getNumberOfPages(), AppConstants.MAX_PAGES)
+                                pageCount, AppConstants.MAX_PAGES)
                 );
             }
 
-            PDFTextStripper stripper = new PDFTextStripper();
-            String text = stripper.getText(document);
+            Timer.Sample extractSample = metrics.start();
+            int workers = extractionWorkers(pageCount);
+            List<String> pageTexts = workers > 1
+                    ? extractPagesInParallel(upload.getPath(), pageCount, workers)
+                    : extractPages(document, 1, pageCount);
+            String text = String.join("", pageTexts);
+            metrics.stop(extractSample, PipelineMetrics.STAGE_PDF_EXTRACT);
+            metrics.recordExtractedPages(pageCount);
 
             log.info("Successfully extracted {} characters from {} pages",
-                    text.length(), document.getNumberOfPages());
+                    text.length(), pageCount);
+
+            ExtractedDocument extracted = ExtractedDocument.builder()
+                    .fileName(upload.getFileName())
+                    .contentHash(upload.getContentHash())
+                    .text(text)
+                    .pageCount(pageCount)
+                    .pageTexts(pageTexts)
+                    .build();
+            documentCacheService.put(extracted);
 
-            return text;
+            return extracted;
 
         } catch (IOException e) {
             log.error("Failed to extract text from PDF", e);
@@ -56,12 +182,17 @@ public class PdfServiceImpl implements PdfService {
         }
     }
 
+    @Override
+    public String extractText(MultipartFile file) {
+        return extractDocument(file).getText();
+    }
+
     @Override
     public int getPageCount(MultipartFile file) {
         log.info("Getting page count for PDF: {}", file.getOriginalFilename());
 
-        try (InputStream inputStream = file.getInputStream();
-             PDDocument document = Loader.loadPDF(inputStream.readAllBytes())) {
+        try (PdfUpload upload = storeUpload(file);
+             PDDocument document = loadDocument(upload.getPath())) {
             return document.getNumberOfPages();
         } catch (IOException e) {
             log.error("Failed to get page count", e);
@@ -86,4 +217,96 @@ public class PdfServiceImpl implements PdfService {
 
         log.info("PDF file validated successfully: {}", fileName);
     }
-}
\ No newline at end of file
+
+    /**
+     * Strip pages one at a time so one pass yields both full and per-page text
+     */
+    private List<String> extractPages(PDDocument document, int startPage, int endPage) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        List<String> pageTexts = new ArrayList<>(endPage - startPage + 1);
+        for (int page = startPage; page <= endPage; page++) {
+            stripper.setStartPage(page);
+            stripper.setEndPage(page);
+            pageTexts.add(stripper.getText(document));
+        }
+        return pageTexts;
+    }
+
+    /**
+     * Number of workers to split a document across; 1 means extract inline
+     */
+    private int extractionWorkers(int pageCount) {
+        if (pageCount < parallelMinPages) {
+            return 1;
+        }
+        int poolSize = extractionExecutor instanceof ThreadPoolExecutor pool
+                ? pool.getMaximumPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(poolSize, pageCount / Math.max(1, pagesPerWorker)));
+    }
+
+    /**
+     * Split the page range across the extraction pool. PDDocument is not
+     * thread-safe, so every worker opens its own handle on the temp file.
+     */
+    private List<String> extractPagesInParallel(Path path, int pageCount, int workers) throws IOException {
+        int rangeSize = (pageCount + workers - 1) / workers;
+
+        log.info("Extracting {} pages on {} workers", pageCount, workers);
+
+        List<Future<List<String>>> futures = new ArrayList<>(workers);
+        for (int startPage = 1; startPage <= pageCount; startPage += rangeSize) {
+            int from = startPage;
+            int to = Math.min(pageCount, startPage + rangeSize - 1);
+            futures.add(extractionExecutor.submit(() -> {
+                try (PDDocument document = loadDocument(path)) {
+                    return extractPages(document, from, to);
+                }
+            }));
+        }
+
+        // Reassemble the ranges in page order
+        List<String> pageTexts = new ArrayList<>(pageCount);
+        try {
+            for (Future<List<String>> future : futures) {
+                pageTexts.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new PdfProcessingException("Interrupted while extracting text from PDF", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new PdfProcessingException("Failed to extract text from PDF", e.getCause());
+        }
+        return pageTexts;
+    }
+
+    /**
+     * Load a PDF from disk through a buffered file reader instead of a heap copy
+     */
+    private PDDocument loadDocument(Path path) throws IOException {
+        RandomAccessReadBufferedFile source = new RandomAccessReadBufferedFile(path.toFile());
+        try {
+            // The loaded document owns the source and closes it with itself
+            return Loader.loadPDF(source, scratchSetting.streamCache);
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temp file {}: {}", path, e.getMessage());
+        }
+    }
+}
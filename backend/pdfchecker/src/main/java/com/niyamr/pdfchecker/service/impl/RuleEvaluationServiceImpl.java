@@ -0,0 +1,257 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.constant.AppConstants;
+import com.niyamr.pdfchecker.model.CompiledRuleSet;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.LLMResponse;
+import com.niyamr.pdfchecker.model.RuleResult;
+import com.niyamr.pdfchecker.service.ContextRetrievalService;
+import com.niyamr.pdfchecker.service.LLMService;
+import com.niyamr.pdfchecker.service.LocalRuleService;
+import com.niyamr.pdfchecker.service.RuleEvaluationService;
+import com.niyamr.pdfchecker.service.RuleResultListener;
+import com.niyamr.pdfchecker.service.RuleSetService;
+import com.niyamr.pdfchecker.util.DocumentIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Implementation of rule evaluation service that fans rules out to the
+ * shared rule evaluation pool
+ */
+@Slf4j
+@Service
+public class RuleEvaluationServiceImpl implements RuleEvaluationService {
+
+    private final LLMService llmService;
+    private final ContextRetrievalService contextRetrievalService;
+    private final LocalRuleService localRuleService;
+    private final RuleSetService ruleSetService;
+    private final ExecutorService executor;
+
+    @Value("${rule-evaluation.max-concurrent-rules:10}")
+    private int maxConcurrentRules;
+
+    @Value("${rule-evaluation.batch-enabled:false}")
+    private boolean batchEnabled;
+
+    public RuleEvaluationServiceImpl(LLMService llmService,
+                                     ContextRetrievalService contextRetrievalService,
+                                     LocalRuleService localRuleService,
+                                     RuleSetService ruleSetService,
+                                     @Qualifier("ruleEvaluationExecutor") ExecutorService executor) {
+        this.llmService = llmService;
+        this.contextRetrievalService = contextRetrievalService;
+        this.localRuleService = localRuleService;
+        this.ruleSetService = ruleSetService;
+        this.executor = executor;
+    }
+
+    @Override
+    public List<RuleResult> evaluateRules(ExtractedDocument document, List<String> rules) {
+        return evaluateRules(document, rules, RuleResultListener.NONE);
+    }
+
+    @Override
+    public List<RuleResult> evaluateRules(ExtractedDocument document, List<String> rules,
+                                          RuleResultListener listener) {
+        return evaluateCompiled(document, ruleSetService.compile(rules), listener);
+    }
+
+    /**
+     * Evaluate a compiled rule set, reporting results under the submitted rules
+     */
+    private List<RuleResult> evaluateCompiled(ExtractedDocument document, CompiledRuleSet ruleSet,
+                                              RuleResultListener listener) {
+        // Near-duplicate rules are checked once and reported for every member
+        List<String> rules = ruleSet.getRules();
+        if (ruleSet.getDuplicateCount() == 0) {
+            return evaluateDistinct(document, ruleSet, listener);
+        }
+
+        List<List<Integer>> groups = ruleSet.getGroups();
+        List<RuleResult> distinct = evaluateDistinct(document, ruleSet,
+                (group, result) -> {
+                    for (int index : groups.get(group)) {
+                        listener.onResult(index, forRule(result, rules.get(index)));
+                    }
+                });
+
+        List<RuleResult> results = new ArrayList<>(Collections.nCopies(rules.size(), null));
+        for (int group = 0; group < groups.size(); group++) {
+            for (int index : groups.get(group)) {
+                results.set(index, forRule(distinct.get(group), rules.get(index)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Evaluate the representatives of a rule set, which are all distinct
+     */
+    private List<RuleResult> evaluateDistinct(ExtractedDocument document, CompiledRuleSet ruleSet,
+                                              RuleResultListener listener) {
+        List<String> rules = ruleSet.getRepresentatives();
+
+        // Mechanical rules are settled from the text; only the rest go to the LLM
+        List<RuleResult> results = localRuleService.evaluate(document, ruleSet);
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < rules.size(); i++) {
+            if (results.get(i) != null) {
+                listener.onResult(i, results.get(i));
+            } else {
+                pending.add(i);
+            }
+        }
+        if (pending.isEmpty()) {
+            return results;
+        }
+
+        // Index once per document; each rule then gets its own relevant slice
+        DocumentIndex index = contextRetrievalService.buildIndex(document);
+
+        if (batchEnabled && pending.size() > 1) {
+            evaluateBatch(index, rules, pending, results, listener);
+            return results;
+        }
+
+        evaluateConcurrently(index, rules, pending, results, listener);
+        return results;
+    }
+
+    /**
+     * Check the pending rules one LLM call each, fanned out to the pool
+     */
+    private void evaluateConcurrently(DocumentIndex index, List<String> rules, List<Integer> pending,
+                                      List<RuleResult> results, RuleResultListener listener) {
+        log.info("Evaluating {} rules with the LLM (max {} concurrent)", pending.size(), maxConcurrentRules);
+
+        // Per-request fan-out limit; the pool size caps in-flight checks globally
+        Semaphore permits = new Semaphore(Math.max(1, maxConcurrentRules));
+        List<Future<RuleResult>> futures = new ArrayList<>(pending.size());
+
+        try {
+            for (int ruleIndex : pending) {
+                String rule = rules.get(ruleIndex);
+                permits.acquire();
+                try {
+                    futures.add(executor.submit(() -> {
+                        try {
+                            String context = contextRetrievalService.selectContext(index, rule);
+                            RuleResult result = toRuleResult(rule, checkRule(context, rule));
+                            listener.onResult(ruleIndex, result);
+                            return result;
+                        } finally {
+                            permits.release();
+                        }
+                    }));
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while submitting rule checks", e);
+        }
+
+        // Collect in submission order so results line up with the rules
+        try {
+            for (int i = 0; i < pending.size(); i++) {
+                int ruleIndex = pending.get(i);
+                results.set(ruleIndex, await(rules.get(ruleIndex), futures.get(i)));
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for rule checks", e);
+        }
+    }
+
+    /**
+     * Evaluate the pending rules with a single batched LLM call
+     */
+    private void evaluateBatch(DocumentIndex index, List<String> rules, List<Integer> pending,
+                               List<RuleResult> results, RuleResultListener listener) {
+        log.info("Evaluating {} rules in batch mode", pending.size());
+
+        List<String> pendingRules = pending.stream().map(rules::get).toList();
+        String context = contextRetrievalService.selectContext(index, String.join("\n", pendingRules));
+        List<LLMResponse> responses = llmService.checkRules(context, pendingRules);
+
+        List<Integer> uncovered = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            int ruleIndex = pending.get(i);
+            if (responses.get(i) == null) {
+                uncovered.add(ruleIndex);
+                continue;
+            }
+            RuleResult result = toRuleResult(rules.get(ruleIndex), responses.get(i));
+            listener.onResult(ruleIndex, result);
+            results.set(ruleIndex, result);
+        }
+
+        // A bad batch answer costs one concurrent round of per-rule calls, not N sequential ones
+        if (!uncovered.isEmpty()) {
+            log.info("Re-checking {} rules the batch answer did not cover", uncovered.size());
+            evaluateConcurrently(index, rules, uncovered, results, listener);
+        }
+    }
+
+    private LLMResponse checkRule(String documentText, String rule) {
+        try {
+            return llmService.checkRule(documentText, rule);
+        } catch (RuntimeException e) {
+            log.error("Rule check failed", e);
+            return errorResponse(e);
+        }
+    }
+
+    private RuleResult await(String rule, Future<RuleResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            log.error("Rule check failed", e.getCause());
+            return toRuleResult(rule, errorResponse(e.getCause()));
+        }
+    }
+
+    private LLMResponse errorResponse(Throwable e) {
+        return LLMResponse.builder()
+                .status(AppConstants.STATUS_ERROR)
+                .evidence("Error occurred during LLM processing")
+                .reasoning("Failed to process rule: " + e.getMessage())
+                .confidence(0)
+                .error(String.valueOf(e.getMessage()))
+                .build();
+    }
+
+    /**
+     * A group's result reported under one of its member rules
+     */
+    private RuleResult forRule(RuleResult result, String rule) {
+        return rule.equals(result.getRule()) ? result : result.toBuilder().rule(rule).build();
+    }
+
+    private RuleResult toRuleResult(String rule, LLMResponse llmResponse) {
+        return RuleResult.builder()
+                .rule(rule)
+                .status(llmResponse.getStatus())
+                .evidence(llmResponse.getEvidence())
+                .reasoning(llmResponse.getReasoning())
+                .confidence(llmResponse.getConfidence())
+                .source(AppConstants.SOURCE_LLM)
+                .build();
+    }
+}
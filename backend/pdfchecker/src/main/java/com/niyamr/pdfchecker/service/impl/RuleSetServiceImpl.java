@@ -0,0 +1,132 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.niyamr.pdfchecker.model.CompiledRuleSet;
+import com.niyamr.pdfchecker.model.LocalRule;
+import com.niyamr.pdfchecker.service.RuleSetService;
+import com.niyamr.pdfchecker.util.AhoCorasickMatcher;
+import com.niyamr.pdfchecker.util.LocalRuleCompiler;
+import com.niyamr.pdfchecker.util.RuleFingerprint;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementation of rule set compilation using MinHash fingerprints. Each
+ * rule joins the first earlier group whose representative is similar
+ * enough; comparing against representatives only keeps groups from
+ * drifting through chains of slightly different rules. The local checks of
+ * the representatives are compiled into the same cached set.
+ */
+@Slf4j
+@Service
+public class RuleSetServiceImpl implements RuleSetService {
+
+    @Value("${rule-evaluation.dedup-enabled:true}")
+    private boolean enabled;
+
+    @Value("${rule-evaluation.dedup-threshold:0.8}")
+    private double threshold;
+
+    @Value("${rule-evaluation.rule-set-cache-size:1000}")
+    private long cacheSize;
+
+    private Cache<List<String>, CompiledRuleSet> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    @Override
+    public CompiledRuleSet compile(List<String> rules) {
+        if (!enabled) {
+            return ungrouped(rules);
+        }
+        return cache.get(List.copyOf(rules), this::group);
+    }
+
+    private CompiledRuleSet group(List<String> rules) {
+        List<String> normalized = new ArrayList<>(rules.size());
+        List<RuleFingerprint> fingerprints = new ArrayList<>(rules.size());
+        List<Integer> representatives = new ArrayList<>();
+        List<List<Integer>> groups = new ArrayList<>();
+
+        for (int i = 0; i < rules.size(); i++) {
+            normalized.add(StringUtils.normalizeSpace(rules.get(i)).toLowerCase(Locale.ROOT));
+            fingerprints.add(RuleFingerprint.of(rules.get(i)));
+
+            int group = -1;
+            for (int g = 0; g < representatives.size() && group < 0; g++) {
+                int representative = representatives.get(g);
+                if (normalized.get(representative).equals(normalized.get(i))
+                        || fingerprints.get(representative).similarity(fingerprints.get(i)) >= threshold) {
+                    group = g;
+                }
+            }
+            if (group < 0) {
+                representatives.add(i);
+                groups.add(new ArrayList<>(List.of(i)));
+            } else {
+                groups.get(group).add(i);
+            }
+        }
+
+        List<String> representativeRules = representatives.stream().map(rules::get).toList();
+        CompiledRuleSet ruleSet = withLocalRules(CompiledRuleSet.builder(), representativeRules)
+                .rules(List.copyOf(rules))
+                .representatives(representativeRules)
+                .groups(groups.stream().map(List::copyOf).toList())
+                .build();
+
+        if (ruleSet.getDuplicateCount() > 0) {
+            log.info("Grouped {} rules into {} distinct checks", rules.size(), representatives.size());
+        }
+        return ruleSet;
+    }
+
+    /**
+     * Rule set with every rule in its own group
+     */
+    private CompiledRuleSet ungrouped(List<String> rules) {
+        List<List<Integer>> groups = new ArrayList<>(rules.size());
+        for (int i = 0; i < rules.size(); i++) {
+            groups.add(List.of(i));
+        }
+        return withLocalRules(CompiledRuleSet.builder(), rules)
+                .rules(List.copyOf(rules))
+                .representatives(List.copyOf(rules))
+                .groups(groups)
+                .build();
+    }
+
+    /**
+     * Compile the local check of each representative and one automaton over
+     * all of their phrases
+     */
+    private CompiledRuleSet.CompiledRuleSetBuilder withLocalRules(CompiledRuleSet.CompiledRuleSetBuilder builder,
+                                                                  List<String> representatives) {
+        List<LocalRule> localRules = new ArrayList<>(representatives.size());
+        List<String> phrases = new ArrayList<>();
+        for (String rule : representatives) {
+            LocalRule localRule = LocalRuleCompiler.compile(rule);
+            localRules.add(localRule);
+            if (localRule != null && localRule.getKind() == LocalRule.Kind.PHRASE) {
+                phrases.add(localRule.getPhrase());
+            }
+        }
+        return builder
+                .localRules(Collections.unmodifiableList(localRules))
+                .phraseMatcher(phrases.isEmpty() ? null : new AhoCorasickMatcher(phrases));
+    }
+}
@@ -0,0 +1,286 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.niyamr.pdfchecker.exception.RuleSetNotFoundException;
+import com.niyamr.pdfchecker.exception.ValidationException;
+import com.niyamr.pdfchecker.model.SavedRuleSet;
+import com.niyamr.pdfchecker.service.RuleSetService;
+import com.niyamr.pdfchecker.service.SavedRuleSetService;
+import com.niyamr.pdfchecker.service.ValidationService;
+import com.niyamr.pdfchecker.util.JsonUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementation of saved rule sets. Versions are stored in a table on the
+ * application datasource when persistence is enabled, and in memory
+ * otherwise. Saved versions never change, so they are cached once read,
+ * and every saved version is compiled straight away so checks that
+ * reference it find the compiled set ready.
+ */
+@Slf4j
+@Service
+public class SavedRuleSetServiceImpl implements SavedRuleSetService {
+
+    private static final String TABLE_DDL = """
+            CREATE TABLE IF NOT EXISTS rule_set (
+                id CHAR(36) NOT NULL,
+                version INT NOT NULL,
+                name VARCHAR(200) NOT NULL,
+                rules TEXT NOT NULL,
+                created_at TIMESTAMP NOT NULL,
+                PRIMARY KEY (id, version)
+            )
+            """;
+
+    private static final String SELECT_COLUMNS = "SELECT id, version, name, rules, created_at FROM rule_set ";
+    private static final int MAX_NAME_LENGTH = 200;
+    private static final int MAX_SAVE_ATTEMPTS = 3;
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplateProvider;
+    private final ValidationService validationService;
+    private final RuleSetService ruleSetService;
+    private final ObjectMapper objectMapper = JsonUtils.MAPPER;
+
+    @Value("${rule-sets.cache-size:1000}")
+    private long cacheSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private Cache<String, SavedRuleSet> versionCache;
+
+    /**
+     * All versions by rule set id, oldest first; used without a datasource
+     */
+    private final Map<String, List<SavedRuleSet>> memoryStore = new ConcurrentHashMap<>();
+
+    public SavedRuleSetServiceImpl(ObjectProvider<JdbcTemplate> jdbcTemplateProvider,
+                                   ValidationService validationService,
+                                   RuleSetService ruleSetService) {
+        this.jdbcTemplateProvider = jdbcTemplateProvider;
+        this.validationService = validationService;
+        this.ruleSetService = ruleSetService;
+    }
+
+    @PostConstruct
+    void init() {
+        versionCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+
+        jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+        if (jdbcTemplate == null) {
+            log.info("Saved rule sets are kept in memory (persistence.enabled is off)");
+        } else {
+            jdbcTemplate.execute(TABLE_DDL);
+            log.info("Saved rule sets are stored in the database");
+        }
+    }
+
+    @Override
+    public SavedRuleSet create(String name, List<String> rules) {
+        String validName = validateName(name);
+        List<String> validRules = validateRules(rules);
+        return save(UUID.randomUUID().toString(), validName, validRules);
+    }
+
+    @Override
+    public SavedRuleSet update(String id, String name, List<String> rules) {
+        SavedRuleSet current = get(id, null);
+        String validName = name == null ? current.getName() : validateName(name);
+        List<String> validRules = validateRules(rules);
+        return save(id, validName, validRules);
+    }
+
+    @Override
+    public SavedRuleSet get(String id, Integer version) {
+        if (version != null) {
+            SavedRuleSet cached = versionCache.getIfPresent(cacheKey(id, version));
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        SavedRuleSet ruleSet = jdbcTemplate != null ? loadPersistent(id, version) : loadMemory(id, version);
+        if (ruleSet == null) {
+            throw new RuleSetNotFoundException(version == null
+                    ? "Rule set not found: " + id
+                    : "Rule set " + id + " has no version " + version);
+        }
+        if (versionCache.getIfPresent(cacheKey(id, ruleSet.getVersion())) == null) {
+            ruleSetService.compile(ruleSet.getRules());
+        }
+        return cache(ruleSet);
+    }
+
+    @Override
+    public List<SavedRuleSet> list() {
+        if (jdbcTemplate != null) {
+            return jdbcTemplate.query(SELECT_COLUMNS
+                            + "r WHERE version = (SELECT MAX(version) FROM rule_set WHERE id = r.id) ORDER BY name",
+                    rowMapper());
+        }
+        return memoryStore.values().stream()
+                .map(versions -> versions.get(versions.size() - 1))
+                .sorted(Comparator.comparing(SavedRuleSet::getName))
+                .toList();
+    }
+
+    @Override
+    public List<String> resolveRules(List<String> rules, String ruleSetId, Integer version) {
+        if (StringUtils.isBlank(ruleSetId)) {
+            return rules == null ? List.of() : rules;
+        }
+        if (rules != null && !rules.isEmpty()) {
+            throw new ValidationException("Send either rules or ruleSetId, not both");
+        }
+        return get(ruleSetId, version).getRules();
+    }
+
+    private SavedRuleSet save(String id, String name, List<String> rules) {
+        SavedRuleSet saved = jdbcTemplate != null
+                ? savePersistent(id, name, rules)
+                : saveMemory(id, name, rules);
+
+        // Compile now so checks that reference this version skip it
+        ruleSetService.compile(saved.getRules());
+
+        log.info("Saved rule set {} version {} with {} rules", id, saved.getVersion(), rules.size());
+        return cache(saved);
+    }
+
+    private SavedRuleSet saveMemory(String id, String name, List<String> rules) {
+        List<SavedRuleSet> versions = memoryStore.compute(id, (key, existing) -> {
+            List<SavedRuleSet> updated = existing == null ? new ArrayList<>() : new ArrayList<>(existing);
+            updated.add(SavedRuleSet.builder()
+                    .id(id)
+                    .name(name)
+                    .version(updated.size() + 1)
+                    .rules(rules)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            return List.copyOf(updated);
+        });
+        return versions.get(versions.size() - 1);
+    }
+
+    private SavedRuleSet loadMemory(String id, Integer version) {
+        List<SavedRuleSet> versions = memoryStore.get(id);
+        if (versions == null) {
+            return null;
+        }
+        if (version == null) {
+            return versions.get(versions.size() - 1);
+        }
+        return version >= 1 && version <= versions.size() ? versions.get(version - 1) : null;
+    }
+
+    private SavedRuleSet savePersistent(String id, String name, List<String> rules) {
+        String rulesJson = toJson(rules);
+        for (int attempt = 1; ; attempt++) {
+            Integer latest = jdbcTemplate.queryForObject(
+                    "SELECT MAX(version) FROM rule_set WHERE id = ?", Integer.class, id);
+            SavedRuleSet saved = SavedRuleSet.builder()
+                    .id(id)
+                    .name(name)
+                    .version(latest == null ? 1 : latest + 1)
+                    .rules(rules)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            try {
+                jdbcTemplate.update(
+                        "INSERT INTO rule_set (id, version, name, rules, created_at) VALUES (?, ?, ?, ?, ?)",
+                        id, saved.getVersion(), name, rulesJson, Timestamp.valueOf(saved.getCreatedAt()));
+                return saved;
+            } catch (DuplicateKeyException e) {
+                // Another instance saved the same version first
+                if (attempt == MAX_SAVE_ATTEMPTS) {
+                    throw new IllegalStateException("Rule set " + id + " is being updated concurrently", e);
+                }
+            }
+        }
+    }
+
+    private SavedRuleSet loadPersistent(String id, Integer version) {
+        List<SavedRuleSet> rows = version == null
+                ? jdbcTemplate.query(SELECT_COLUMNS
+                        + "WHERE id = ? AND version = (SELECT MAX(version) FROM rule_set WHERE id = ?)",
+                        rowMapper(), id, id)
+                : jdbcTemplate.query(SELECT_COLUMNS + "WHERE id = ? AND version = ?",
+                        rowMapper(), id, version);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private RowMapper<SavedRuleSet> rowMapper() {
+        return (rs, rowNum) -> SavedRuleSet.builder()
+                .id(rs.getString("id").trim())
+                .version(rs.getInt("version"))
+                .name(rs.getString("name"))
+                .rules(fromJson(rs.getString("rules")))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    }
+
+    private SavedRuleSet cache(SavedRuleSet ruleSet) {
+        versionCache.put(cacheKey(ruleSet.getId(), ruleSet.getVersion()), ruleSet);
+        return ruleSet;
+    }
+
+    private String cacheKey(String id, int version) {
+        return id + ":" + version;
+    }
+
+    private String validateName(String name) {
+        if (StringUtils.isBlank(name)) {
+            throw new ValidationException("Rule set name is required");
+        }
+        String trimmed = StringUtils.normalizeSpace(name);
+        if (trimmed.length() > MAX_NAME_LENGTH) {
+            throw new ValidationException("Rule set name is too long (max " + MAX_NAME_LENGTH + " characters)");
+        }
+        return trimmed;
+    }
+
+    private List<String> validateRules(List<String> rules) {
+        List<String> errors = validationService.validateRules(rules);
+        if (!errors.isEmpty()) {
+            throw new ValidationException(String.join(", ", errors));
+        }
+        return rules.stream().map(StringUtils::normalizeSpace).toList();
+    }
+
+    private String toJson(List<String> rules) {
+        try {
+            return objectMapper.writeValueAsString(rules);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialise rules", e);
+        }
+    }
+
+    private List<String> fromJson(String json) {
+        try {
+            return List.copyOf(objectMapper.readValue(json, new TypeReference<List<String>>() { }));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored rule set is not valid JSON", e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.config.LlmRoutingProperties;
+import com.niyamr.pdfchecker.model.TokenBudget;
+import com.niyamr.pdfchecker.service.TokenBudgetService;
+import com.niyamr.pdfchecker.util.ModelTokenProfile;
+import com.niyamr.pdfchecker.util.TokenEstimator;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Implementation of token budget service backed by {@link ModelTokenProfile}.
+ * A request may be answered by any routed backend, so prompts are planned
+ * for the smallest context window and the densest tokenizer among the
+ * configured model and every backend override.
+ */
+@Slf4j
+@Service
+public class TokenBudgetServiceImpl implements TokenBudgetService {
+
+    private static final String TRUNCATION_MARKER = "... [truncated]";
+
+    @Value("${llm.model}")
+    private String model;
+
+    @Value("${llm.max-tokens}")
+    private int maxOutputTokens;
+
+    @Value("${llm.context-window:0}")
+    private int contextWindowOverride;
+
+    @Value("${llm.token-budget.max-document-tokens:6000}")
+    private int maxDocumentTokens;
+
+    @Value("${llm.token-budget.safety-margin:0.05}")
+    private double safetyMargin;
+
+    private final LlmRoutingProperties routingProperties;
+
+    private TokenEstimator estimator;
+    private int contextWindow;
+    private int marginTokens;
+
+    public TokenBudgetServiceImpl(LlmRoutingProperties routingProperties) {
+        this.routingProperties = routingProperties;
+    }
+
+    @PostConstruct
+    void init() {
+        Set<String> models = new LinkedHashSet<>();
+        models.add(model);
+        for (LlmRoutingProperties.Backend backend : routingProperties.getBackends()) {
+            if (StringUtils.isNotBlank(backend.getModel())) {
+                models.add(backend.getModel());
+            }
+        }
+        List<ModelTokenProfile> profiles = models.stream()
+                .map(ModelTokenProfile::forModel)
+                .distinct()
+                .toList();
+
+        // Overestimating tokens and underestimating the window are the safe side
+        ModelTokenProfile densest = profiles.stream()
+                .min(Comparator.comparingDouble(ModelTokenProfile::getCharsPerToken))
+                .orElseThrow();
+        ModelTokenProfile smallest = profiles.stream()
+                .min(Comparator.comparingInt(ModelTokenProfile::getContextWindow))
+                .orElseThrow();
+        estimator = densest;
+        contextWindow = contextWindowOverride > 0 ? contextWindowOverride : smallest.getContextWindow();
+        // The estimate is approximate, so never plan right up to the window
+        marginTokens = (int) Math.ceil(contextWindow * safetyMargin);
+
+        log.info("Token budget for {}: estimator {}, context window {}, document limit {}",
+                models, densest, contextWindow, getDocumentTokenLimit());
+    }
+
+    @Override
+    public int estimateTokens(String text) {
+        return estimator.estimate(text);
+    }
+
+    @Override
+    public int getDocumentTokenLimit() {
+        return Math.max(0, Math.min(maxDocumentTokens, contextWindow - marginTokens - maxOutputTokens));
+    }
+
+    @Override
+    public TokenBudget plan(String fixedPrompt, int requestedOutputTokens) {
+        int fixedTokens = estimateTokens(fixedPrompt);
+        int available = Math.max(0, contextWindow - marginTokens - fixedTokens);
+        int outputTokens = Math.min(requestedOutputTokens, available);
+        int documentTokens = Math.min(maxDocumentTokens, available - outputTokens);
+
+        if (outputTokens < requestedOutputTokens) {
+            log.warn("Requested {} output tokens but only {} fit the {} token context window",
+                    requestedOutputTokens, outputTokens, contextWindow);
+        }
+
+        return TokenBudget.builder()
+                .contextWindow(contextWindow)
+                .fixedTokens(fixedTokens)
+                .outputTokens(outputTokens)
+                .documentTokens(documentTokens)
+                .build();
+    }
+
+    @Override
+    public String fitToTokens(String text, int maxTokens) {
+        if (text == null || estimateTokens(text) <= maxTokens) {
+            return text;
+        }
+
+        int budget = maxTokens - estimateTokens(TRUNCATION_MARKER);
+        if (budget <= 0) {
+            return "";
+        }
+
+        // The estimate grows with the prefix length, so search for the longest fit
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (estimateTokens(text.substring(0, mid)) <= budget) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        // Prefer not to cut a word in half
+        int cut = low;
+        int space = text.lastIndexOf(' ', cut);
+        if (space > cut / 2) {
+            cut = space;
+        }
+        return text.substring(0, cut) + TRUNCATION_MARKER;
+    }
+}
@@ -5,9 +5,11 @@ import com.niyamr.pdfchecker.dto.CheckRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.niyamr.pdfchecker.exception.ValidationException;
 import com.niyamr.pdfchecker.service.ValidationService;
+import com.niyamr.pdfchecker.util.PipelineMetrics;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,8 +21,18 @@ import java.util.List;
 @Service
 public class ValidationServiceImpl implements ValidationService {
     
+    private final PipelineMetrics metrics;
+    
+    public ValidationServiceImpl(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+    
     @Override
     public void validateRequest(CheckRequest request) {
+        metrics.time(PipelineMetrics.STAGE_VALIDATION, () -> validateCheckRequest(request));
+    }
+    
+    private void validateCheckRequest(CheckRequest request) {
         log.info("Validating check request");
         
         List<String> errors = new ArrayList<>();
@@ -54,6 +66,50 @@ public class ValidationServiceImpl implements ValidationService {
         log.info("Request validation successful");
     }
     
+    @Override
+    public void validateBulkRequest(List<MultipartFile> files, List<String> rules, int maxFiles) {
+        metrics.time(PipelineMetrics.STAGE_VALIDATION, () -> validateBulkCheckRequest(files, rules, maxFiles));
+    }
+    
+    private void validateBulkCheckRequest(List<MultipartFile> files, List<String> rules, int maxFiles) {
+        log.info("Validating bulk check request");
+        
+        List<String> errors = new ArrayList<>();
+        
+        // Validate files
+        if (files == null || files.isEmpty()) {
+            errors.add(AppConstants.FILE_REQUIRED_MSG);
+        } else {
+            if (files.size() > maxFiles) {
+                errors.add(String.format("Maximum %d files allowed", maxFiles));
+            }
+            for (int i = 0; i < files.size(); i++) {
+                MultipartFile file = files.get(i);
+                if (file == null || file.isEmpty()) {
+                    errors.add(String.format("File %d: %s", i + 1, AppConstants.FILE_REQUIRED_MSG));
+                    continue;
+                }
+                if (!isValidPdfExtension(file.getOriginalFilename())) {
+                    errors.add(String.format("File %d: %s", i + 1, AppConstants.INVALID_FILE_TYPE_MSG));
+                }
+                if (!isValidFileSize(file.getSize(), AppConstants.MAX_FILE_SIZE_MB)) {
+                    errors.add(String.format("File %d: %s", i + 1, AppConstants.FILE_SIZE_EXCEEDED_MSG));
+                }
+            }
+        }
+        
+        // Validate rules once for all files
+        errors.addAll(validateRules(rules));
+        
+        if (!errors.isEmpty()) {
+            String errorMessage = String.join(", ", errors);
+            log.error("Bulk validation failed: {}", errorMessage);
+            throw new ValidationException(errorMessage);
+        }
+        
+        log.info("Bulk request validation successful");
+    }
+    
     @Override
     public List<String> validateRules(List<String> rules) {
         List<String> errors = new ArrayList<>();
@@ -0,0 +1,202 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.niyamr.pdfchecker.model.CacheStats;
+import com.niyamr.pdfchecker.model.LLMResponse;
+import com.niyamr.pdfchecker.service.VerdictCacheService;
+import com.niyamr.pdfchecker.util.HashUtils;
+import com.niyamr.pdfchecker.util.PromptBuilder;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Two-tier verdict cache: a bounded in-memory tier backed by an optional
+ * table on the application datasource
+ */
+@Slf4j
+@Service
+public class VerdictCacheServiceImpl implements VerdictCacheService {
+
+    private static final String TABLE_DDL = """
+            CREATE TABLE IF NOT EXISTS verdict_cache (
+                cache_key CHAR(64) NOT NULL PRIMARY KEY,
+                status VARCHAR(16) NOT NULL,
+                evidence TEXT,
+                reasoning TEXT,
+                confidence INT,
+                created_at TIMESTAMP NOT NULL
+            )
+            """;
+
+    private final ObjectProvider<JdbcTemplate> jdbcTemplateProvider;
+
+    @Value("${verdict-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${verdict-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${verdict-cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    @Value("${verdict-cache.persistent-enabled:false}")
+    private boolean persistentEnabled;
+
+    private Cache<String, LLMResponse> memoryCache;
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public VerdictCacheServiceImpl(ObjectProvider<JdbcTemplate> jdbcTemplateProvider) {
+        this.jdbcTemplateProvider = jdbcTemplateProvider;
+    }
+
+    @PostConstruct
+    void init() {
+        memoryCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+
+        if (enabled && persistentEnabled) {
+            jdbcTemplate = jdbcTemplateProvider.getIfAvailable();
+            if (jdbcTemplate == null) {
+                log.warn("Persistent verdict cache requested but no datasource is configured (persistence.enabled)");
+            } else {
+                jdbcTemplate.execute(TABLE_DDL);
+                log.info("Persistent verdict cache enabled");
+            }
+        }
+    }
+
+    @Override
+    public String buildKey(String documentText, String rule, String model, Double temperature) {
+        String normalizedRule = StringUtils.normalizeSpace(rule).toLowerCase(Locale.ROOT);
+        return HashUtils.sha256Hex(String.join("\n",
+                HashUtils.sha256Hex(documentText),
+                normalizedRule,
+                String.valueOf(model),
+                String.valueOf(temperature),
+                PromptBuilder.PROMPT_VERSION));
+    }
+
+    @Override
+    public LLMResponse get(String key) {
+        return getAny(List.of(key));
+    }
+
+    @Override
+    public LLMResponse getAny(List<String> keys) {
+        if (!enabled) {
+            return null;
+        }
+
+        for (String key : keys) {
+            LLMResponse cached = memoryCache.getIfPresent(key);
+            if (cached != null) {
+                memoryHits.incrementAndGet();
+                return cached;
+            }
+        }
+
+        for (String key : keys) {
+            LLMResponse cached = loadPersistent(key);
+            if (cached != null) {
+                persistentHits.incrementAndGet();
+                memoryCache.put(key, cached);
+                return cached;
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public void put(String key, LLMResponse response) {
+        if (!enabled || response == null || response.hasError() || !response.isValid()) {
+            return;
+        }
+
+        memoryCache.put(key, response);
+        storePersistent(key, response);
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return CacheStats.builder()
+                .name("verdict")
+                .memoryHits(memoryHits.get())
+                .secondaryHits(persistentHits.get())
+                .misses(misses.get())
+                .size(memoryCache.estimatedSize())
+                .build();
+    }
+
+    private LLMResponse loadPersistent(String key) {
+        if (jdbcTemplate == null) {
+            return null;
+        }
+
+        try {
+            Timestamp notBefore = Timestamp.from(Instant.now().minus(Duration.ofMinutes(ttlMinutes)));
+            List<LLMResponse> rows = jdbcTemplate.query(
+                    "SELECT status, evidence, reasoning, confidence FROM verdict_cache "
+                            + "WHERE cache_key = ? AND created_at >= ?",
+                    (rs, rowNum) -> LLMResponse.builder()
+                            .status(rs.getString("status"))
+                            .evidence(rs.getString("evidence"))
+                            .reasoning(rs.getString("reasoning"))
+                            .confidence(rs.getInt("confidence"))
+                            .build(),
+                    key, notBefore);
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (DataAccessException e) {
+            log.warn("Failed to read persistent verdict cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void storePersistent(String key, LLMResponse response) {
+        if (jdbcTemplate == null) {
+            return;
+        }
+
+        try {
+            Timestamp now = Timestamp.from(Instant.now());
+            int updated = jdbcTemplate.update(
+                    "UPDATE verdict_cache SET status = ?, evidence = ?, reasoning = ?, confidence = ?, created_at = ? "
+                            + "WHERE cache_key = ?",
+                    response.getStatus(), response.getEvidence(), response.getReasoning(),
+                    response.getConfidence(), now, key);
+            if (updated == 0) {
+                jdbcTemplate.update(
+                        "INSERT INTO verdict_cache (cache_key, status, evidence, reasoning, confidence, created_at) "
+                                + "VALUES (?, ?, ?, ?, ?, ?)",
+                        key, response.getStatus(), response.getEvidence(), response.getReasoning(),
+                        response.getConfidence(), now);
+            }
+        } catch (DuplicateKeyException e) {
+            log.debug("Verdict already stored by a concurrent check");
+        } catch (DataAccessException e) {
+            log.warn("Failed to write persistent verdict cache: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.niyamr.pdfchecker.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton that finds any number of phrases in one pass over
+ * a text. Matching ignores case and treats every run of whitespace as a
+ * single space, while reported offsets point into the original text.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class AhoCorasickMatcher {
+
+    /**
+     * Receives matches in the order their end offsets appear in the text
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+
+        /**
+         * @param pattern Index of the matched phrase
+         * @param start Offset of the first matched character in the text
+         * @param end Offset after the last matched character
+         * @return false to stop the search
+         */
+        boolean onMatch(int pattern, int start, int end);
+    }
+
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<int[]> outputs = new ArrayList<>();
+    private final int[] patternLengths;
+    private final int maxLength;
+    private int[] failure;
+
+    /**
+     * Build the automaton
+     *
+     * @param patterns Phrases to find; blank phrases never match
+     */
+    public AhoCorasickMatcher(List<String> patterns) {
+        this.patternLengths = new int[patterns.size()];
+        addNode();
+
+        int longest = 1;
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = normalize(patterns.get(i));
+            patternLengths[i] = pattern.length();
+            longest = Math.max(longest, pattern.length());
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (int c = 0; c < pattern.length(); c++) {
+                Integer next = transitions.get(node).get(pattern.charAt(c));
+                if (next == null) {
+                    next = addNode();
+                    transitions.get(node).put(pattern.charAt(c), next);
+                }
+                node = next;
+            }
+            outputs.set(node, append(outputs.get(node), i));
+        }
+        this.maxLength = longest;
+        buildFailureLinks();
+    }
+
+    /**
+     * Lowercase the text and collapse whitespace the way the matcher does
+     */
+    public static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = normalized.length() > 0;
+            } else {
+                if (space) {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Scan the text once, reporting every occurrence of every phrase
+     */
+    public void search(String text, MatchHandler handler) {
+        // Original offset of each of the last maxLength normalized characters
+        int[] positions = new int[maxLength];
+        long fed = 0;
+        int node = 0;
+        boolean pendingSpace = false;
+        int spaceStart = 0;
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (!pendingSpace) {
+                    pendingSpace = fed > 0;
+                    spaceStart = i;
+                }
+                continue;
+            }
+            if (pendingSpace) {
+                pendingSpace = false;
+                node = step(node, ' ');
+                positions[(int) (fed++ % maxLength)] = spaceStart;
+                if (!report(node, fed, positions, spaceStart + 1, handler)) {
+                    return;
+                }
+            }
+            node = step(node, Character.toLowerCase(c));
+            positions[(int) (fed++ % maxLength)] = i;
+            if (!report(node, fed, positions, i + 1, handler)) {
+                return;
+            }
+        }
+    }
+
+    private boolean report(int node, long fed, int[] positions, int end, MatchHandler handler) {
+        for (int pattern : outputs.get(node)) {
+            int start = positions[(int) ((fed - patternLengths[pattern]) % maxLength)];
+            if (!handler.onMatch(pattern, start, end)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int step(int node, char c) {
+        while (true) {
+            Integer next = transitions.get(node).get(c);
+            if (next != null) {
+                return next;
+            }
+            if (node == 0) {
+                return 0;
+            }
+            node = failure[node];
+        }
+    }
+
+    private void buildFailureLinks() {
+        failure = new int[transitions.size()];
+        Queue<Integer> queue = new ArrayDeque<>(transitions.get(0).values());
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (Map.Entry<Character, Integer> edge : transitions.get(node).entrySet()) {
+                int child = edge.getValue();
+                int fallback = node == 0 ? 0 : step(failure[node], edge.getKey());
+                failure[child] = fallback == child ? 0 : fallback;
+                // Phrases ending at the fallback state also end here
+                for (int pattern : outputs.get(failure[child])) {
+                    outputs.set(child, append(outputs.get(child), pattern));
+                }
+                queue.add(child);
+            }
+        }
+    }
+
+    private int addNode() {
+        transitions.add(new HashMap<>());
+        outputs.add(new int[0]);
+        return transitions.size() - 1;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] extended = new int[values.length + 1];
+        System.arraycopy(values, 0, extended, 0, values.length);
+        extended[values.length] = value;
+        return extended;
+    }
+}
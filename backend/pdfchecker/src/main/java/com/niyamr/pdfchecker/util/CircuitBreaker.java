@@ -0,0 +1,166 @@
+package com.niyamr.pdfchecker.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker for one LLM backend. It opens when, over the
+ * last calls, the failure rate or the share of slow calls reaches its
+ * threshold. After the open wait a few trial calls are let through; the
+ * breaker closes if they all succeed quickly and opens again otherwise.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallMillis;
+    private final long openWaitNanos;
+    private final int halfOpenCalls;
+
+    // Ring buffer of outcomes: bit 0 = failed, bit 1 = slow
+    private final byte[] outcomes;
+    private int next;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          double slowCallRateThreshold, long slowCallMillis,
+                          long openWaitMillis, int halfOpenCalls) {
+        this.windowSize = Math.max(1, windowSize);
+        this.minimumCalls = Math.max(1, minimumCalls);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallMillis = slowCallMillis;
+        this.openWaitNanos = TimeUnit.MILLISECONDS.toNanos(openWaitMillis);
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.outcomes = new byte[this.windowSize];
+    }
+
+    /**
+     * Ask to make a call. Every granted permission must be followed by
+     * exactly one of {@link #onSuccess}, {@link #onFailure} or {@link #onIgnored}.
+     *
+     * @return false if the breaker is open and the call must not be made
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < openWaitNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Record a call that got an answer from the backend
+     */
+    public synchronized void onSuccess(long durationMillis) {
+        boolean slow = durationMillis >= slowCallMillis;
+        if (state == State.HALF_OPEN) {
+            if (slow) {
+                open();
+            } else if (++halfOpenSuccesses >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false, slow);
+    }
+
+    /**
+     * Record a call that failed in a way that points at the backend
+     */
+    public synchronized void onFailure(long durationMillis) {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true, durationMillis >= slowCallMillis);
+    }
+
+    /**
+     * Release a permission without recording an outcome
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Failure rate (0-1) over the recorded calls
+     */
+    public synchronized double getFailureRate() {
+        return recorded == 0 ? 0.0 : (double) failures / recorded;
+    }
+
+    /**
+     * Slow call rate (0-1) over the recorded calls
+     */
+    public synchronized double getSlowCallRate() {
+        return recorded == 0 ? 0.0 : (double) slowCalls / recorded;
+    }
+
+    /**
+     * Calls currently held in the window
+     */
+    public synchronized int getRecordedCalls() {
+        return recorded;
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (recorded == windowSize) {
+            byte evicted = outcomes[next];
+            failures -= evicted & 1;
+            slowCalls -= (evicted >> 1) & 1;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = (byte) ((failed ? 1 : 0) | (slow ? 2 : 0));
+        failures += failed ? 1 : 0;
+        slowCalls += slow ? 1 : 0;
+        next = (next + 1) % windowSize;
+
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && (getFailureRate() >= failureRateThreshold || getSlowCallRate() >= slowCallRateThreshold)) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.niyamr.pdfchecker.util;
+
+import com.niyamr.pdfchecker.model.DocumentChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for splitting extracted text into retrieval chunks. Chunks
+ * never cross a page boundary and break at paragraphs, then lines, then
+ * whitespace.
+ */
+public final class DocumentChunker {
+
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\R\\s*\\R");
+    private static final Pattern LINE_BREAK = Pattern.compile("\\R");
+
+    private DocumentChunker() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Split pages into chunks of roughly the target size
+     *
+     * @param pageTexts Text of each page, index 0 is page 1
+     * @param targetChars Preferred maximum chunk length
+     * @return Chunks in document order
+     */
+    public static List<DocumentChunk> chunk(List<String> pageTexts, int targetChars) {
+        int target = Math.max(1, targetChars);
+        List<DocumentChunk> chunks = new ArrayList<>();
+
+        for (int page = 0; page < pageTexts.size(); page++) {
+            List<String> pieces = new ArrayList<>();
+            for (String paragraph : PARAGRAPH_BREAK.split(pageTexts.get(page))) {
+                splitPiece(paragraph.strip(), target, pieces);
+            }
+
+            // Greedily merge neighbouring pieces up to the target size
+            StringBuilder current = new StringBuilder();
+            for (String piece : pieces) {
+                if (current.length() > 0 && current.length() + 1 + piece.length() > target) {
+                    addChunk(chunks, page + 1, current);
+                }
+                if (current.length() > 0) {
+                    current.append('\n');
+                }
+                current.append(piece);
+            }
+            addChunk(chunks, page + 1, current);
+        }
+        return chunks;
+    }
+
+    /**
+     * Break an oversized paragraph into lines, and oversized lines at whitespace
+     */
+    private static void splitPiece(String text, int target, List<String> pieces) {
+        if (text.isEmpty()) {
+            return;
+        }
+        if (text.length() <= target) {
+            pieces.add(text);
+            return;
+        }
+
+        for (String line : LINE_BREAK.split(text)) {
+            String remaining = line.strip();
+            while (remaining.length() > target) {
+                int cut = remaining.lastIndexOf(' ', target);
+                if (cut <= 0) {
+                    cut = target;
+                }
+                pieces.add(remaining.substring(0, cut).strip());
+                remaining = remaining.substring(cut).strip();
+            }
+            if (!remaining.isEmpty()) {
+                pieces.add(remaining);
+            }
+        }
+    }
+
+    private static void addChunk(List<DocumentChunk> chunks, int pageNumber, StringBuilder text) {
+        if (text.length() == 0) {
+            return;
+        }
+        chunks.add(DocumentChunk.builder()
+                .index(chunks.size())
+                .pageNumber(pageNumber)
+                .text(text.toString())
+                .build());
+        text.setLength(0);
+    }
+}
@@ -0,0 +1,133 @@
+package com.niyamr.pdfchecker.util;
+
+import com.niyamr.pdfchecker.model.DocumentChunk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-process BM25 index over the chunks of one document. Built once per
+ * document and then queried once per rule; instances are immutable and
+ * safe to share between rule checks.
+ */
+public final class DocumentIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "does", "for", "from", "has", "have",
+            "in", "is", "it", "its", "must", "of", "on", "or", "should", "that", "the", "this",
+            "to", "was", "were", "will", "with", "document", "contain", "contains", "include",
+            "includes", "mention", "mentions");
+
+    private final String text;
+    private final List<DocumentChunk> chunks;
+    private final List<Map<String, Integer>> termFrequencies;
+    private final int[] chunkLengths;
+    private final Map<String, Integer> documentFrequencies;
+    private final double averageLength;
+
+    private DocumentIndex(String text, List<DocumentChunk> chunks) {
+        this.text = text;
+        this.chunks = List.copyOf(chunks);
+        this.termFrequencies = new ArrayList<>(chunks.size());
+        this.chunkLengths = new int[chunks.size()];
+        this.documentFrequencies = new HashMap<>();
+
+        long totalLength = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            List<String> terms = tokenize(chunks.get(i).getText());
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            for (String term : frequencies.keySet()) {
+                documentFrequencies.merge(term, 1, Integer::sum);
+            }
+            termFrequencies.add(frequencies);
+            chunkLengths[i] = terms.size();
+            totalLength += terms.size();
+        }
+        this.averageLength = chunks.isEmpty() ? 0 : (double) totalLength / chunks.size();
+    }
+
+    /**
+     * Chunk the pages and index the chunks
+     *
+     * @param text Full document text
+     * @param pageTexts Text of each page, index 0 is page 1
+     * @param chunkChars Preferred maximum chunk length
+     */
+    public static DocumentIndex build(String text, List<String> pageTexts, int chunkChars) {
+        return new DocumentIndex(text, DocumentChunker.chunk(pageTexts, chunkChars));
+    }
+
+    /**
+     * Full document text the index was built from
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Indexed chunks in document order
+     */
+    public List<DocumentChunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * BM25 score of every chunk for the query, indexed like {@link #getChunks()}
+     */
+    public double[] score(String query) {
+        double[] scores = new double[chunks.size()];
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            Integer df = documentFrequencies.get(term);
+            if (df == null) {
+                continue;
+            }
+            double idf = Math.log(1 + (chunks.size() - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < chunks.size(); i++) {
+                Integer tf = termFrequencies.get(i).get(term);
+                if (tf == null) {
+                    continue;
+                }
+                double norm = K1 * (1 - B + B * chunkLengths[i] / Math.max(1.0, averageLength));
+                scores[i] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Lowercase word and number terms, without stop words and single characters
+     */
+    static List<String> tokenize(String value) {
+        List<String> terms = new ArrayList<>();
+        if (value == null) {
+            return terms;
+        }
+
+        String lower = value.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = lower.substring(start, i);
+                if (term.length() > 1 && !STOP_WORDS.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,41 @@
+package com.niyamr.pdfchecker.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility class for content hashing
+ */
+public final class HashUtils {
+
+    private HashUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Create a new SHA-256 digest
+     */
+    public static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Format a digest as lowercase hex
+     */
+    public static String toHex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    /**
+     * SHA-256 of the UTF-8 bytes of the text, as lowercase hex
+     */
+    public static String sha256Hex(String text) {
+        return toHex(newSha256().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
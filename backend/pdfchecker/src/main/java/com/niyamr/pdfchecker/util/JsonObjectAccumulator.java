@@ -0,0 +1,70 @@
+package com.niyamr.pdfchecker.util;
+
+/**
+ * Collects streamed text deltas and tracks brace depth, outside of JSON
+ * strings, to tell when the first top-level JSON object is closed. An
+ * object only counts if its first token is a quoted key, so braces in
+ * leading prose are skipped. Text after the object is dropped.
+ */
+public class JsonObjectAccumulator {
+
+    private final StringBuilder text = new StringBuilder();
+    private int start = -1;
+    private int end = -1;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean awaitingKey;
+
+    /**
+     * Append the next delta
+     */
+    public void append(String delta) {
+        for (int i = 0; i < delta.length() && end < 0; i++) {
+            char c = delta.charAt(i);
+            text.append(c);
+            if (awaitingKey && !Character.isWhitespace(c)) {
+                awaitingKey = false;
+                if (c != '"') {
+                    // Not a JSON object after all: look for the next one
+                    start = -1;
+                    depth = 0;
+                }
+            }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"' && start >= 0) {
+                inString = true;
+            } else if (c == '{') {
+                if (start < 0) {
+                    start = text.length() - 1;
+                    awaitingKey = true;
+                }
+                depth++;
+            } else if (c == '}' && start >= 0 && --depth == 0) {
+                end = text.length();
+            }
+        }
+    }
+
+    /**
+     * Whether the first JSON object has been closed
+     */
+    public boolean isComplete() {
+        return end >= 0;
+    }
+
+    /**
+     * The complete JSON object, or everything received so far if it is
+     * not complete yet
+     */
+    public String getText() {
+        return end >= 0 ? text.substring(start, end) : text.toString();
+    }
+}
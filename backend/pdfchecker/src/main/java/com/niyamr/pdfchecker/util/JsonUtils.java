@@ -0,0 +1,26 @@
+package com.niyamr.pdfchecker.util;
+
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * Utility class holding the shared Jackson mapper. Mappers are thread-safe
+ * and costly to build, so providers, parsers and stores all use this one.
+ * Reading is lenient: LLM answers may carry trailing commas or raw
+ * newlines in strings, and provider or stored JSON may carry fields this
+ * version does not know.
+ */
+public final class JsonUtils {
+
+    public static final ObjectMapper MAPPER = JsonMapper.builder()
+            .enable(JsonReadFeature.ALLOW_TRAILING_COMMA)
+            .enable(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private JsonUtils() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+}
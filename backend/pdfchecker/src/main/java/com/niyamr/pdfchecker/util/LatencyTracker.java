@@ -0,0 +1,43 @@
+package com.niyamr.pdfchecker.util;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of recent call latencies for percentile estimates
+ */
+public class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    public LatencyTracker(int windowSize) {
+        this.samples = new long[Math.max(1, windowSize)];
+    }
+
+    /**
+     * Record one latency in milliseconds
+     */
+    public synchronized void record(long millis) {
+        samples[next] = millis;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * Latency at the given percentile (0-1) of the window, or -1 if fewer
+     * than minSamples latencies have been recorded
+     */
+    public long percentile(double percentile, int minSamples) {
+        long[] window;
+        synchronized (this) {
+            if (count == 0 || count < minSamples) {
+                return -1;
+            }
+            window = Arrays.copyOf(samples, count);
+        }
+        Arrays.sort(window);
+        int index = (int) Math.ceil(percentile * window.length) - 1;
+        return window[Math.max(0, Math.min(window.length - 1, index))];
+    }
+}
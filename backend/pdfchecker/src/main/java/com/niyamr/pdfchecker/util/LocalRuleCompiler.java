@@ -0,0 +1,68 @@
+package com.niyamr.pdfchecker.util;
+
+import com.niyamr.pdfchecker.model.LocalRule;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for recognising mechanical rules that can be decided by
+ * matching text. Only fixed phrasings are recognised; anything else is
+ * left to the LLM.
+ */
+public final class LocalRuleCompiler {
+
+    private static final String SUBJECT =
+            "^(?:the\\s+)?(?:(?:document|pdf|file|contract|agreement|text|it)\\s+)?(?:must|should|shall)";
+
+    private static final Pattern PHRASE_RULE = Pattern.compile(SUBJECT
+            + "(\\s+not)?\\s+(?:contain|include|mention|have|state|use)\\s+"
+            + "(?:the\\s+)?(?:exact\\s+)?(?:(?:phrase|word|words|text|term|wording|string)\\s+)?"
+            + "(?:\"([^\"]+)\"|\\u201C([^\\u201D]+)\\u201D)\\s*\\.?$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DATE_RULE = Pattern.compile(SUBJECT
+            + "\\s+(?:contain|include|mention|have|show|state)\\s+(?:a|any|at\\s+least\\s+one)\\s+date\\s*\\.?$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern SIGNATURE_RULE = Pattern.compile(SUBJECT
+            + "\\s+(?:contain|include|have|show)\\s+(?:a\\s+)?signature(?:\\s+(?:line|block|field|section))?\\s*\\.?$",
+            Pattern.CASE_INSENSITIVE);
+
+    private LocalRuleCompiler() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Compile a rule for local checking
+     *
+     * @param rule Rule text as entered
+     * @return The compiled rule, or null if the rule needs the LLM
+     */
+    public static LocalRule compile(String rule) {
+        if (rule == null) {
+            return null;
+        }
+        String trimmed = rule.trim();
+
+        Matcher phrase = PHRASE_RULE.matcher(trimmed);
+        if (phrase.matches()) {
+            String value = phrase.group(2) != null ? phrase.group(2) : phrase.group(3);
+            if (value.isBlank()) {
+                return null;
+            }
+            return LocalRule.builder()
+                    .kind(LocalRule.Kind.PHRASE)
+                    .phrase(value.trim())
+                    .negated(phrase.group(1) != null)
+                    .build();
+        }
+        if (DATE_RULE.matcher(trimmed).matches()) {
+            return LocalRule.builder().kind(LocalRule.Kind.DATE).build();
+        }
+        if (SIGNATURE_RULE.matcher(trimmed).matches()) {
+            return LocalRule.builder().kind(LocalRule.Kind.SIGNATURE).build();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,82 @@
+package com.niyamr.pdfchecker.util;
+
+import java.util.Locale;
+
+/**
+ * Known model families with their context window and a character-ratio
+ * tokenizer approximation. Profiles are matched by model name prefix, in
+ * declaration order, so more specific prefixes must come first.
+ */
+public enum ModelTokenProfile implements TokenEstimator {
+
+    GPT_4O("gpt-4o", 128_000, 4.0),
+    GPT_4_TURBO("gpt-4-turbo", 128_000, 4.0),
+    GPT_4("gpt-4", 8_192, 4.0),
+    GPT_35("gpt-3.5", 16_385, 4.0),
+    CLAUDE("claude", 200_000, 3.5),
+    LLAMA_3("llama-3", 128_000, 3.8),
+    LLAMA3("llama3", 8_192, 3.8),
+    MIXTRAL("mixtral", 32_768, 3.5),
+    GEMMA("gemma", 8_192, 3.8),
+    DEFAULT("", 8_192, 3.5);
+
+    private final String prefix;
+    private final int contextWindow;
+    private final double charsPerToken;
+
+    ModelTokenProfile(String prefix, int contextWindow, double charsPerToken) {
+        this.prefix = prefix;
+        this.contextWindow = contextWindow;
+        this.charsPerToken = charsPerToken;
+    }
+
+    /**
+     * Find the profile for a model name, falling back to {@link #DEFAULT}
+     */
+    public static ModelTokenProfile forModel(String model) {
+        String name = model == null ? "" : model.toLowerCase(Locale.ROOT);
+        for (ModelTokenProfile profile : values()) {
+            if (name.startsWith(profile.prefix)) {
+                return profile;
+            }
+        }
+        return DEFAULT;
+    }
+
+    /**
+     * Total tokens the model accepts for prompt and completion together
+     */
+    public int getContextWindow() {
+        return contextWindow;
+    }
+
+    /**
+     * Average ASCII characters per token; lower means a denser tokenizer
+     */
+    public double getCharsPerToken() {
+        return charsPerToken;
+    }
+
+    /**
+     * ASCII text is counted at the profile's character ratio; other
+     * characters usually split into one or more tokens each and are
+     * counted as one token apiece.
+     */
+    @Override
+    public int estimate(String text) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x80) {
+                ascii++;
+            } else {
+                other++;
+            }
+        }
+        return (int) Math.ceil(ascii / charsPerToken) + other;
+    }
+}
@@ -0,0 +1,161 @@
+package com.niyamr.pdfchecker.util;
+
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.RuleResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters for the check pipeline. Every stage is timed under one
+ * name with a stage tag, so a slow check can be traced to PDFBox or the
+ * LLM by comparing stages; LLM calls are timed separately, tagged by
+ * backend and model. Histogram buckets are switched on in configuration.
+ */
+@Component
+public class PipelineMetrics {
+
+    public static final String STAGE_VALIDATION = "validation";
+    public static final String STAGE_PDF_STORE = "pdf.store";
+    public static final String STAGE_PDF_LOAD = "pdf.load";
+    public static final String STAGE_PDF_EXTRACT = "pdf.extract";
+    public static final String STAGE_PROMPT_BUILD = "prompt.build";
+    public static final String STAGE_RULE_EVALUATION = "rule.evaluation";
+    public static final String STAGE_VERDICT_PARSE = "verdict.parse";
+
+    private static final String STAGE_TIMER = "pdfchecker.stage";
+    private static final String LLM_CALL_TIMER = "pdfchecker.llm.call";
+
+    private final MeterRegistry registry;
+    private final DistributionSummary uploadBytes;
+    private final DistributionSummary extractedPages;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.uploadBytes = DistributionSummary.builder("pdfchecker.pdf.bytes")
+                .description("Size of uploaded PDFs")
+                .baseUnit("bytes")
+                .register(registry);
+        this.extractedPages = DistributionSummary.builder("pdfchecker.pdf.pages")
+                .description("Pages extracted per PDF, cache hits excluded")
+                .baseUnit("pages")
+                .register(registry);
+    }
+
+    /**
+     * Start timing a stage whose work does not fit a supplier
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    /**
+     * Stop a sample started with {@link #start()} and record it for a stage
+     */
+    public void stop(Timer.Sample sample, String stage) {
+        sample.stop(stageTimer(stage));
+    }
+
+    /**
+     * Time a stage; failures are timed too
+     */
+    public <T> T time(String stage, Supplier<T> work) {
+        return stageTimer(stage).record(work);
+    }
+
+    /**
+     * Time a stage that returns nothing
+     */
+    public void time(String stage, Runnable work) {
+        stageTimer(stage).record(work);
+    }
+
+    /**
+     * Record one call to an LLM backend
+     *
+     * @param success false if the call threw
+     */
+    public void recordLlmCall(String backend, String model, boolean success, long elapsedNanos) {
+        Timer.builder(LLM_CALL_TIMER)
+                .description("Latency of one LLM HTTP call, retries counted separately")
+                .tag("backend", backend)
+                .tag("model", String.valueOf(model))
+                .tag("outcome", success ? "success" : "error")
+                .register(registry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Count the prompt tokens a backend reported, and how many of them it
+     * served from its prompt cache
+     */
+    public void countTokens(String backend, String model, LLMCompletion completion) {
+        if (completion.getPromptTokens() != null) {
+            tokenCounter(backend, model, "prompt").increment(completion.getPromptTokens());
+        }
+        if (completion.getCachedPromptTokens() != null) {
+            tokenCounter(backend, model, "cached").increment(completion.getCachedPromptTokens());
+        }
+    }
+
+    /**
+     * Expose the calls a {@link SingleFlight} has in flight and the callers
+     * it spared a call of their own
+     */
+    public void bindSingleFlight(String name, SingleFlight<?, ?> flight) {
+        Gauge.builder("pdfchecker.coalescing.in-flight", flight, source -> source.getInFlight())
+                .description("Distinct calls in flight")
+                .tag("name", name)
+                .register(registry);
+        FunctionCounter.builder("pdfchecker.coalescing.shared", flight, source -> source.getSharedCalls())
+                .description("Callers served by an identical call already in flight")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    public void recordUploadBytes(long bytes) {
+        uploadBytes.record(bytes);
+    }
+
+    public void recordExtractedPages(int pages) {
+        extractedPages.record(pages);
+    }
+
+    /**
+     * Count the verdicts of a check by status and by where they came from
+     */
+    public void countVerdicts(List<RuleResult> results) {
+        for (RuleResult result : results) {
+            Counter.builder("pdfchecker.verdicts")
+                    .description("Rule verdicts returned to clients")
+                    .tag("status", String.valueOf(result.getStatus()))
+                    .tag("source", String.valueOf(result.getSource()))
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder(STAGE_TIMER)
+                .description("Latency of one stage of the check pipeline")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private Counter tokenCounter(String backend, String model, String type) {
+        return Counter.builder("pdfchecker.llm.tokens")
+                .description("Prompt tokens reported by LLM backends")
+                .tag("backend", backend)
+                .tag("model", String.valueOf(model))
+                .tag("type", type)
+                .register(registry);
+    }
+}
@@ -8,6 +8,12 @@ import org.springframework.stereotype.Component;
 @Component
 public class PromptBuilder {
     
+    /**
+     * Version of the prompt templates. Bump whenever a prompt changes so
+     * cached verdicts from older prompts are not reused.
+     */
+    public static final String PROMPT_VERSION = "2";
+    
     /**
      * Build system prompt for LLM
      */
@@ -35,46 +41,86 @@ public class PromptBuilder {
     }
     
     /**
-     * Build user prompt for specific rule check
+     * Build system prompt for batch rule checking
+     */
+    public String buildBatchSystemPrompt() {
+        return """
+                You are a document compliance checker. Your task is to analyze documents 
+                and verify if they comply with a numbered list of rules.
+                
+                You must respond ONLY with a valid JSON object in this exact format, with one 
+                entry per rule in the same order as the rules were given:
+                {
+                    "results": [
+                        {
+                            "rule": <rule number>,
+                            "status": "PASS" or "FAIL",
+                            "evidence": "A specific sentence or phrase from the document that supports your decision",
+                            "reasoning": "Brief explanation of why the rule passed or failed",
+                            "confidence": <number between 0-100>
+                        }
+                    ]
+                }
+                
+                Guidelines:
+                - Evaluate every rule independently
+                - Be precise and objective
+                - Use exact quotes from the document as evidence
+                - Confidence should reflect how certain you are about the decision
+                - If the rule is satisfied, status should be "PASS"
+                - If the rule is not satisfied, status should be "FAIL"
+                - Always provide clear reasoning
+                """;
+    }
+    
+    /**
+     * Build user prompt for specific rule check. The document text must
+     * already fit the request's token budget.
      */
     public String buildUserPrompt(String documentText, String rule) {
-        // Truncate document if too long (to avoid token limits)
-        String truncatedText = documentText.length() > 8000 
-                ? documentText.substring(0, 8000) + "... [truncated]"
-                : documentText;
-        
+        return buildDocumentPrompt(documentText) + buildRulePrompt(rule);
+    }
+    
+    /**
+     * Build prompt for batch rule checking. The document text must already
+     * fit the request's token budget.
+     */
+    public String buildBatchPrompt(String documentText, String... rules) {
+        return buildDocumentPrompt(documentText) + buildBatchRulesPrompt(rules);
+    }
+    
+    /**
+     * Build the document part of the user prompt. It comes first and does
+     * not depend on the rule, so providers can cache it across rule checks.
+     */
+    public String buildDocumentPrompt(String documentText) {
+        return "Document to analyze:\n---\n" + documentText + "\n---\n\n";
+    }
+    
+    /**
+     * Build the rule part of the user prompt for a single rule check
+     */
+    public String buildRulePrompt(String rule) {
         return String.format("""
-                Document to analyze:
-                ---
-                %s
-                ---
-                
                 Rule to check:
                 "%s"
                 
                 Please analyze the document and respond with ONLY a JSON object as specified.
-                """, truncatedText, rule);
+                """, rule);
     }
     
     /**
-     * Build prompt for batch rule checking
+     * Build the rules part of the user prompt for batch rule checking
      */
-    public String buildBatchPrompt(String documentText, String... rules) {
+    public String buildBatchRulesPrompt(String... rules) {
         StringBuilder prompt = new StringBuilder();
-        prompt.append("Document to analyze:\n---\n");
-        
-        String truncatedText = documentText.length() > 8000 
-                ? documentText.substring(0, 8000) + "... [truncated]"
-                : documentText;
-        
-        prompt.append(truncatedText).append("\n---\n\n");
         prompt.append("Rules to check:\n");
         
         for (int i = 0; i < rules.length; i++) {
             prompt.append(String.format("%d. %s\n", i + 1, rules[i]));
         }
         
-        prompt.append("\nPlease analyze each rule and respond with a JSON array of results.");
+        prompt.append("\nPlease analyze each rule and respond with ONLY a JSON object containing the array of results as specified.");
         
         return prompt.toString();
     }
@@ -0,0 +1,125 @@
+package com.niyamr.pdfchecker.util;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Utility class for reading rate limit headers from LLM provider responses.
+ * Understands the OpenAI-style x-ratelimit-* headers (also sent by Groq),
+ * the anthropic-ratelimit-* headers and retry-after.
+ */
+public final class RateLimitHeaders {
+
+    private static final Pattern DURATION_PART = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|h|m|s)");
+
+    private RateLimitHeaders() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Requests left in the current window, or null if not reported
+     */
+    public static Long remainingRequests(HttpHeaders headers) {
+        return firstLong(headers, "x-ratelimit-remaining-requests", "anthropic-ratelimit-requests-remaining");
+    }
+
+    /**
+     * Tokens left in the current window, or null if not reported
+     */
+    public static Long remainingTokens(HttpHeaders headers) {
+        return firstLong(headers, "x-ratelimit-remaining-tokens", "anthropic-ratelimit-tokens-remaining");
+    }
+
+    /**
+     * Time until the request quota resets, or null if not reported
+     */
+    public static Duration requestsReset(HttpHeaders headers) {
+        return firstDuration(headers, "x-ratelimit-reset-requests", "anthropic-ratelimit-requests-reset");
+    }
+
+    /**
+     * Time until the token quota resets, or null if not reported
+     */
+    public static Duration tokensReset(HttpHeaders headers) {
+        return firstDuration(headers, "x-ratelimit-reset-tokens", "anthropic-ratelimit-tokens-reset");
+    }
+
+    /**
+     * Retry-after as seconds or an HTTP date, or null if absent
+     */
+    public static Duration retryAfter(HttpHeaders headers) {
+        String value = headers == null ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofMillis((long) (Double.parseDouble(value.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            return untilDate(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        }
+    }
+
+    private static Long firstLong(HttpHeaders headers, String... names) {
+        for (String name : names) {
+            String value = headers == null ? null : headers.getFirst(name);
+            if (value != null) {
+                try {
+                    return Long.parseLong(value.trim());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Duration firstDuration(HttpHeaders headers, String... names) {
+        for (String name : names) {
+            String value = headers == null ? null : headers.getFirst(name);
+            if (value != null) {
+                return parseDuration(value.trim());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parse "1m30.5s" / "250ms" style durations, or an ISO-8601 reset time
+     */
+    private static Duration parseDuration(String value) {
+        Matcher matcher = DURATION_PART.matcher(value);
+        double millis = 0;
+        int end = 0;
+        while (matcher.find() && matcher.start() == end) {
+            double amount = Double.parseDouble(matcher.group(1));
+            millis += switch (matcher.group(2)) {
+                case "h" -> amount * 3_600_000;
+                case "m" -> amount * 60_000;
+                case "s" -> amount * 1_000;
+                default -> amount;
+            };
+            end = matcher.end();
+        }
+        if (end > 0 && end == value.length()) {
+            return Duration.ofMillis((long) millis);
+        }
+        return untilDate(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    private static Duration untilDate(String value, DateTimeFormatter formatter) {
+        try {
+            Instant reset = ZonedDateTime.parse(value, formatter).toInstant();
+            Duration wait = Duration.between(Instant.now(), reset);
+            return wait.isNegative() ? Duration.ZERO : wait;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.niyamr.pdfchecker.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedding-free fingerprint of a rule for near-duplicate detection. The
+ * rule is lowercased, stripped of filler words and light-stemmed; its
+ * content words and their character trigrams form the shingle set, which
+ * is summarised as a MinHash signature. Negations, connectives, numbers and
+ * quoted phrases change what a rule means, so they must match exactly
+ * before two rules are compared at all. Instances are immutable.
+ */
+public final class RuleFingerprint {
+
+    private static final int SIGNATURE_SIZE = 64;
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(SIGNATURE_SIZE).toArray();
+
+    private static final Pattern QUOTED = Pattern.compile("\"([^\"]*)\"|\\u201C([^\\u201D]*)\\u201D");
+
+    private static final Set<String> FILLER_WORDS = Set.of(
+            "a", "an", "the", "this", "that", "these", "those", "it", "its", "there", "their",
+            "must", "should", "shall", "will", "needs", "need", "be", "is", "are", "was", "been",
+            "document", "pdf", "file", "contract", "agreement", "text",
+            "contain", "contains", "containing", "include", "includes", "including", "included",
+            "have", "has", "having", "mention", "mentions", "mentioned", "state", "states", "stated",
+            "specify", "specifies", "specified", "list", "lists", "listed", "present", "provide",
+            "provides", "provided", "show", "shows", "shown", "required", "require", "requires",
+            "mandatory", "of", "to", "in", "on", "for", "with", "by", "as", "at", "from", "clearly");
+
+    private static final Set<String> MARKER_WORDS = Set.of(
+            "not", "no", "never", "without", "none", "nor", "and", "or", "unless", "except",
+            "only", "all", "any", "each", "every", "least", "most", "more", "less", "before",
+            "after", "within", "than");
+
+    private final String canonical;
+    private final Set<String> markers;
+    private final int[] signature;
+
+    private RuleFingerprint(String canonical, Set<String> markers, int[] signature) {
+        this.canonical = canonical;
+        this.markers = markers;
+        this.signature = signature;
+    }
+
+    /**
+     * Fingerprint a rule
+     */
+    public static RuleFingerprint of(String rule) {
+        String lower = rule == null ? "" : rule.toLowerCase(Locale.ROOT);
+        Set<String> markers = new TreeSet<>();
+
+        // Quoted phrases are compared verbatim, not as loose words
+        Matcher quoted = QUOTED.matcher(lower);
+        while (quoted.find()) {
+            String phrase = quoted.group(1) != null ? quoted.group(1) : quoted.group(2);
+            markers.add("\"" + String.join(" ", words(phrase)) + "\"");
+        }
+        lower = quoted.replaceAll(" ");
+
+        List<String> content = new ArrayList<>();
+        for (String word : words(lower)) {
+            if (MARKER_WORDS.contains(word) || Character.isDigit(word.charAt(0))) {
+                markers.add(word);
+            } else if (word.length() > 1 && !FILLER_WORDS.contains(word)) {
+                content.add(stem(word));
+            }
+        }
+
+        Set<String> shingles = new HashSet<>();
+        for (String word : content) {
+            shingles.add(word);
+            String padded = "^" + word + "$";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                shingles.add(padded.substring(i, i + 3));
+            }
+        }
+        return new RuleFingerprint(String.join(" ", new TreeSet<>(content)), Set.copyOf(markers),
+                minHash(shingles));
+    }
+
+    /**
+     * Estimated Jaccard similarity of the two rules' shingles (0-1), or 0
+     * when their negations, connectives, numbers or quoted phrases differ
+     */
+    public double similarity(RuleFingerprint other) {
+        if (!markers.equals(other.markers)) {
+            return 0;
+        }
+        if (canonical.isEmpty() || other.canonical.isEmpty()) {
+            return 0;
+        }
+        if (canonical.equals(other.canonical)) {
+            return 1;
+        }
+        int equal = 0;
+        for (int i = 0; i < SIGNATURE_SIZE; i++) {
+            if (signature[i] == other.signature[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / SIGNATURE_SIZE;
+    }
+
+    private static int[] minHash(Set<String> shingles) {
+        if (shingles.isEmpty()) {
+            return new int[0];
+        }
+        int[] minimums = new int[SIGNATURE_SIZE];
+        Arrays.fill(minimums, Integer.MAX_VALUE);
+        for (String shingle : shingles) {
+            long hash = shingle.hashCode();
+            for (int i = 0; i < SIGNATURE_SIZE; i++) {
+                int value = (int) (mix(hash ^ SEEDS[i]) >>> 33);
+                if (value < minimums[i]) {
+                    minimums[i] = value;
+                }
+            }
+        }
+        return minimums;
+    }
+
+    /**
+     * SplitMix64 finaliser
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Strip common English inflections so "clauses" and "clause" agree
+     */
+    private static String stem(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 5 && word.endsWith("ing")) {
+            return word.substring(0, word.length() - 3);
+        }
+        if (word.length() > 4 && word.endsWith("ed")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,98 @@
+package com.niyamr.pdfchecker.util;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key: the first caller runs the
+ * call and every caller arriving while it is in flight gets its result.
+ * In-flight calls are tracked in a {@link ConcurrentHashMap}, so callers
+ * with different keys do not contend on a shared lock.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong sharedCalls = new AtomicLong();
+    private final Duration maxWait;
+
+    /**
+     * @param maxWait Longest a caller waits for the identical call in flight
+     */
+    public SingleFlight(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Run the call, or wait for the identical call already in flight. The
+     * caller that gets to run it first repeats the lookup: a call that
+     * finished after the caller's own lookup has stored its result and
+     * left the in-flight map, so without the repeat it would run twice.
+     *
+     * @param key Identity of the call
+     * @param lookup Result that is already available, e.g. from a cache, or null
+     * @param call Call to run if the lookup has nothing and none is in flight
+     * @return Result of the lookup or of the call that ran
+     * @throws IllegalStateException if waiting for the call in flight times out or is interrupted
+     */
+    public V execute(K key, Supplier<V> lookup, Supplier<V> call) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            sharedCalls.incrementAndGet();
+            return await(running);
+        }
+
+        try {
+            V value = lookup.get();
+            if (value == null) {
+                value = call.get();
+            }
+            own.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Number of calls currently in flight
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Number of callers that were served by another caller's call
+     */
+    public long getSharedCalls() {
+        return sharedCalls.get();
+    }
+
+    private V await(CompletableFuture<V> running) {
+        try {
+            return running.get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Identical call still in flight after " + maxWait.toMillis() + " ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an identical call in flight", e);
+        }
+    }
+}
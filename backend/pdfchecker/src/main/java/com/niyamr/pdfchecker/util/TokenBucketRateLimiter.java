@@ -0,0 +1,142 @@
+package com.niyamr.pdfchecker.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side limiter for one LLM provider with two token buckets, one for
+ * requests per minute and one for tokens per minute. The buckets refill
+ * continuously, are pulled down to what the provider reports as remaining,
+ * and can be paused entirely when the provider asks callers to back off.
+ * A limit of 0 disables that bucket.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final long requestsPerMinute;
+    private final long tokensPerMinute;
+
+    private double availableRequests;
+    private double availableTokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    public TokenBucketRateLimiter(long requestsPerMinute, long tokensPerMinute) {
+        this.requestsPerMinute = Math.max(0, requestsPerMinute);
+        this.tokensPerMinute = Math.max(0, tokensPerMinute);
+        this.availableRequests = this.requestsPerMinute;
+        this.availableTokens = this.tokensPerMinute;
+        this.lastRefillNanos = System.nanoTime();
+        this.pausedUntilNanos = lastRefillNanos;
+    }
+
+    /**
+     * Wait until one request costing the given tokens may be sent
+     *
+     * @param tokens Estimated tokens of the request, prompt plus output
+     * @param deadlineNanos {@link System#nanoTime()} by which to give up
+     * @return true if the request may be sent, false if the deadline would pass first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean acquire(int tokens, long deadlineNanos) throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                refill(now);
+                waitNanos = waitNanos(tokens, now);
+                if (waitNanos == 0) {
+                    availableRequests -= requestsPerMinute > 0 ? 1 : 0;
+                    availableTokens -= tokensPerMinute > 0 ? cost(tokens) : 0;
+                    return true;
+                }
+                if (now + waitNanos > deadlineNanos) {
+                    return false;
+                }
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, TimeUnit.MILLISECONDS.toNanos(1)));
+        }
+    }
+
+    /**
+     * Give back a request taken with {@link #acquire} that was never sent
+     *
+     * @param tokens Tokens the request was acquired with
+     */
+    public synchronized void refund(int tokens) {
+        refill(System.nanoTime());
+        availableRequests = Math.min(requestsPerMinute, availableRequests + (requestsPerMinute > 0 ? 1 : 0));
+        availableTokens = Math.min(tokensPerMinute, availableTokens + (tokensPerMinute > 0 ? cost(tokens) : 0));
+    }
+
+    /**
+     * Pull the buckets down to the remaining quota reported by the provider,
+     * pausing until the reported reset when a quota is exhausted
+     *
+     * @param remainingRequests Remaining requests in the window, or null if unknown
+     * @param requestsReset Time until the request quota resets, or null
+     * @param remainingTokens Remaining tokens in the window, or null if unknown
+     * @param tokensReset Time until the token quota resets, or null
+     */
+    public synchronized void observe(Long remainingRequests, Duration requestsReset,
+                                     Long remainingTokens, Duration tokensReset) {
+        refill(System.nanoTime());
+        if (remainingRequests != null && requestsPerMinute > 0) {
+            availableRequests = Math.min(availableRequests, remainingRequests);
+        }
+        if (remainingTokens != null && tokensPerMinute > 0) {
+            availableTokens = Math.min(availableTokens, remainingTokens);
+        }
+        if (remainingRequests != null && remainingRequests <= 0 && requestsReset != null) {
+            pause(requestsReset);
+        }
+        if (remainingTokens != null && remainingTokens <= 0 && tokensReset != null) {
+            pause(tokensReset);
+        }
+    }
+
+    /**
+     * Hold back all callers for the given time, e.g. a retry-after value
+     */
+    public synchronized void pause(Duration duration) {
+        long until = System.nanoTime() + duration.toNanos();
+        if (until - pausedUntilNanos > 0) {
+            pausedUntilNanos = until;
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed <= 0) {
+            return;
+        }
+        availableRequests = Math.min(requestsPerMinute,
+                availableRequests + (double) requestsPerMinute * elapsed / NANOS_PER_MINUTE);
+        availableTokens = Math.min(tokensPerMinute,
+                availableTokens + (double) tokensPerMinute * elapsed / NANOS_PER_MINUTE);
+        lastRefillNanos = now;
+    }
+
+    private long waitNanos(int tokens, long now) {
+        long wait = Math.max(0, pausedUntilNanos - now);
+        if (requestsPerMinute > 0 && availableRequests < 1) {
+            wait = Math.max(wait, deficitNanos(1 - availableRequests, requestsPerMinute));
+        }
+        if (tokensPerMinute > 0 && availableTokens < cost(tokens)) {
+            wait = Math.max(wait, deficitNanos(cost(tokens) - availableTokens, tokensPerMinute));
+        }
+        return wait;
+    }
+
+    /**
+     * A request larger than the whole bucket only waits for a full bucket
+     */
+    private double cost(int tokens) {
+        return Math.min(Math.max(0, tokens), tokensPerMinute);
+    }
+
+    private long deficitNanos(double deficit, long perMinute) {
+        return (long) Math.ceil(deficit * NANOS_PER_MINUTE / perMinute);
+    }
+}
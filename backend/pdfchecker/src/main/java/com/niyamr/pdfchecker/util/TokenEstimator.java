@@ -0,0 +1,16 @@
+package com.niyamr.pdfchecker.util;
+
+/**
+ * Local approximation of how many tokens a model's tokenizer produces for
+ * a piece of text, so prompts can be sized without a network round trip
+ */
+public interface TokenEstimator {
+
+    /**
+     * Estimate the token count of the text
+     *
+     * @param text Text to measure, may be null
+     * @return Estimated number of tokens
+     */
+    int estimate(String text);
+}
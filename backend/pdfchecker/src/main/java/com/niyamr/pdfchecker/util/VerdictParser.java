@@ -0,0 +1,249 @@
+package com.niyamr.pdfchecker.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.niyamr.pdfchecker.model.LLMResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+/**
+ * Utility class for reading verdicts out of LLM answers. Uses Jackson's
+ * streaming parser over the factory of the shared, lenient
+ * {@link JsonUtils#MAPPER} and only keeps the verdict fields, so no tree
+ * is built. Prose and markdown fences around the JSON are skipped by
+ * parsing from the first object start and resuming after each candidate
+ * that is not a valid verdict, so the text is read about once.
+ */
+public final class VerdictParser {
+
+    private static final JsonFactory FACTORY = JsonUtils.MAPPER.getFactory();
+
+    private VerdictParser() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Find the first valid verdict object in the text
+     *
+     * @param text Raw LLM answer
+     * @return The verdict with the text as raw response, or null if none is valid
+     */
+    public static LLMResponse parse(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        int start = text.indexOf('{');
+        while (start >= 0) {
+            int next = start + 1;
+            try (JsonParser parser = parserAt(text, start)) {
+                try {
+                    parser.nextToken();
+                    Entry entry = readEntry(parser);
+                    if (entry.response().isValid()) {
+                        entry.response().setRawResponse(text);
+                        return entry.response();
+                    }
+                } catch (IOException e) {
+                    // Not JSON at this brace
+                }
+                // Resume after whatever this candidate consumed
+                next = Math.max(next, start + (int) parser.currentLocation().getCharOffset());
+            } catch (IOException e) {
+                // Parser could not be opened at this brace, try the next one
+            }
+            start = text.indexOf('{', next);
+        }
+        return null;
+    }
+
+    /**
+     * Read a batch answer into the response slots. The answer is either an
+     * array of entries or an object with a "results" array. Entries are
+     * matched by their rule number, or by position when it is absent;
+     * invalid entries leave their slot empty.
+     *
+     * @param text Raw LLM answer
+     * @param responses Slots to fill, one per rule
+     * @return false if no results array was found in the text
+     */
+    public static boolean parseBatch(String text, List<LLMResponse> responses) {
+        if (text == null) {
+            return false;
+        }
+
+        int start = indexOfStructStart(text, 0);
+        while (start >= 0) {
+            int next = start + 1;
+            try (JsonParser parser = parserAt(text, start)) {
+                try {
+                    if (moveToResults(parser)) {
+                        readEntries(parser, text, start, responses);
+                        return true;
+                    }
+                } catch (IOException e) {
+                    // Not JSON at this position
+                }
+                // Resume after whatever this candidate consumed
+                next = Math.max(next, start + (int) parser.currentLocation().getCharOffset());
+            } catch (IOException e) {
+                // Parser could not be opened at this position, try the next one
+            }
+            start = indexOfStructStart(text, next);
+        }
+        return false;
+    }
+
+    /**
+     * Position the parser on the START_ARRAY of the entries
+     */
+    private static boolean moveToResults(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return true;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            return false;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static void readEntries(JsonParser parser, String text, int offset,
+                                    List<LLMResponse> responses) throws IOException {
+        int position = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                position++;
+                continue;
+            }
+            int entryStart = offset + (int) parser.currentTokenLocation().getCharOffset();
+            Entry entry = readEntry(parser);
+            int entryEnd = offset + (int) parser.currentLocation().getCharOffset();
+            int index = entry.rule() != null ? entry.rule() - 1 : position;
+            position++;
+            if (index < 0 || index >= responses.size() || responses.get(index) != null) {
+                continue;
+            }
+            if (entry.response().isValid()) {
+                entry.response().setRawResponse(text.substring(entryStart, entryEnd));
+                responses.set(index, entry.response());
+            }
+        }
+    }
+
+    /**
+     * Read the object the parser is on, keeping only verdict fields
+     */
+    private static Entry readEntry(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object");
+        }
+
+        LLMResponse response = new LLMResponse();
+        Integer rule = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "status" -> response.setStatus(text(parser, value));
+                case "evidence" -> response.setEvidence(text(parser, value));
+                case "reasoning" -> response.setReasoning(text(parser, value));
+                case "confidence" -> response.setConfidence(confidence(parser, value));
+                case "rule" -> rule = number(parser, value);
+                default -> {
+                    // Field not used by the verdict
+                }
+            }
+        }
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new IOException("Unterminated JSON object");
+        }
+        return new Entry(rule, response);
+    }
+
+    private static String text(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+    }
+
+    /**
+     * Confidence as a percentage. Models sometimes answer with a fraction,
+     * so decimals in (0, 1] without a percent sign are scaled by 100;
+     * integers are already percentages.
+     */
+    private static Integer confidence(JsonParser parser, JsonToken value) throws IOException {
+        Double confidence = decimal(parser, value);
+        if (confidence == null) {
+            return null;
+        }
+        boolean fraction = value == JsonToken.VALUE_NUMBER_FLOAT
+                || (value == JsonToken.VALUE_STRING && parser.getText().contains(".")
+                        && !parser.getText().contains("%"));
+        if (fraction && confidence > 0 && confidence <= 1) {
+            confidence *= 100;
+        }
+        return (int) Math.round(confidence);
+    }
+
+    /**
+     * Integer value of a number or numeric string, rounding fractions
+     */
+    private static Integer number(JsonParser parser, JsonToken value) throws IOException {
+        Double number = decimal(parser, value);
+        return number == null ? null : (int) Math.round(number);
+    }
+
+    private static Double decimal(JsonParser parser, JsonToken value) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            try {
+                return Double.parseDouble(parser.getText().trim().replace("%", ""));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Parser reading the text from the given offset without copying it.
+     * Locations it reports are relative to that offset.
+     */
+    private static JsonParser parserAt(String text, int start) throws IOException {
+        Reader reader = new StringReader(text);
+        reader.skip(start);
+        return FACTORY.createParser(reader);
+    }
+
+    private static int indexOfStructStart(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '[' || c == '{') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Entry(Integer rule, LLMResponse response) {
+    }
+}
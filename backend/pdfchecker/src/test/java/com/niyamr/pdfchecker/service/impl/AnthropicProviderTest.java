@@ -0,0 +1,112 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niyamr.pdfchecker.config.LlmRoutingProperties;
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the prompt cache wire format against a local stub of the
+ * messages endpoint
+ */
+class AnthropicProviderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ANSWER = "{\"content\": [{\"type\": \"text\", \"text\": \"{\\\"status\\\": \\\"PASS\\\"}\"}], "
+            + "\"usage\": {\"input_tokens\": 40, \"cache_read_input_tokens\": 1000, "
+            + "\"cache_creation_input_tokens\": 10, \"output_tokens\": 30}}";
+
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final AtomicReference<String> apiKeyHeader = new AtomicReference<>();
+
+    private HttpServer server;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v1/messages", this::answer);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendsStablePrefixAsCacheBreakpoints() throws Exception {
+        LLMCompletion completion = provider(true).complete(request());
+
+        JsonNode sent = MAPPER.readTree(requestBody.get());
+        assertThat(apiKeyHeader.get()).isEqualTo("test-key");
+        assertThat(sent.path("system").path(0).path("text").asText()).isEqualTo("system prompt");
+        assertThat(sent.path("system").path(0).path("cache_control").path("type").asText()).isEqualTo("ephemeral");
+
+        JsonNode content = sent.path("messages").path(0).path("content");
+        assertThat(content.size()).isEqualTo(2);
+        assertThat(content.path(0).path("text").asText()).isEqualTo("document prefix");
+        assertThat(content.path(0).path("cache_control").path("type").asText()).isEqualTo("ephemeral");
+        assertThat(content.path(1).path("text").asText()).isEqualTo("rule suffix");
+        assertThat(content.path(1).has("cache_control")).isFalse();
+
+        assertThat(completion.getContent()).isEqualTo("{\"status\": \"PASS\"}");
+        assertThat(completion.getPromptTokens()).isEqualTo(1050);
+        assertThat(completion.getCachedPromptTokens()).isEqualTo(1000);
+    }
+
+    @Test
+    void sendsPlainPromptWithCachingDisabled() throws Exception {
+        provider(false).complete(request());
+
+        JsonNode sent = MAPPER.readTree(requestBody.get());
+        assertThat(sent.path("system").asText()).isEqualTo("system prompt");
+        assertThat(sent.path("messages").path(0).path("content").asText()).isEqualTo("document prefixrule suffix");
+    }
+
+    private AnthropicProvider provider(boolean promptCacheEnabled) {
+        LlmRoutingProperties.Backend backend = new LlmRoutingProperties.Backend();
+        backend.setName("anthropic-stub");
+        backend.setProvider("anthropic");
+        backend.setApiUrl("http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + "/v1/messages");
+        backend.setApiKey("test-key");
+        return new AnthropicProvider(backend, new RestTemplate(), false, promptCacheEnabled);
+    }
+
+    private LLMRequest request() {
+        return LLMRequest.builder()
+                .model("claude-stub")
+                .systemPrompt("system prompt")
+                .documentPrompt("document prefix")
+                .rulePrompt("rule suffix")
+                .userPrompt("document prefixrule suffix")
+                .maxTokens(200)
+                .temperature(0.0)
+                .build();
+    }
+
+    private void answer(HttpExchange exchange) throws IOException {
+        requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        apiKeyHeader.set(exchange.getRequestHeaders().getFirst("x-api-key"));
+        byte[] bytes = ANSWER.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
@@ -0,0 +1,223 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niyamr.pdfchecker.constant.AppConstants;
+import com.niyamr.pdfchecker.dto.CheckResponse;
+import com.niyamr.pdfchecker.model.BatchAudit;
+import com.niyamr.pdfchecker.model.CompiledRuleSet;
+import com.niyamr.pdfchecker.model.ExtractedDocument;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.model.LLMResponse;
+import com.niyamr.pdfchecker.model.PdfUpload;
+import com.niyamr.pdfchecker.model.RuleResult;
+import com.niyamr.pdfchecker.service.ContextRetrievalService;
+import com.niyamr.pdfchecker.service.LLMService;
+import com.niyamr.pdfchecker.service.LocalRuleService;
+import com.niyamr.pdfchecker.service.PdfService;
+import com.niyamr.pdfchecker.service.RuleSetService;
+import com.niyamr.pdfchecker.service.VerdictCacheService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs an audit end to end against a local stub of the OpenAI batch
+ * endpoints: submission, polling and mapping results back to documents
+ */
+class AuditServiceImplTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final List<String> RULES = List.of("Document is signed", "Document has a date");
+
+    private final AtomicReference<String> uploadedFile = new AtomicReference<>();
+    private final AtomicReference<String> batchRequest = new AtomicReference<>();
+    private final AtomicInteger statusPolls = new AtomicInteger();
+
+    private final PdfService pdfService = mock(PdfService.class);
+    private final LLMService llmService = mock(LLMService.class);
+    private final LocalRuleService localRuleService = mock(LocalRuleService.class);
+    private final RuleSetService ruleSetService = mock(RuleSetService.class);
+    private final ContextRetrievalService contextRetrievalService = mock(ContextRetrievalService.class);
+    private final VerdictCacheService verdictCache = mock(VerdictCacheService.class);
+
+    private HttpServer server;
+    private AuditServiceImpl auditService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/v1/", this::handle);
+        server.start();
+
+        when(ruleSetService.compile(RULES)).thenReturn(CompiledRuleSet.builder()
+                .rules(RULES)
+                .representatives(RULES)
+                .groups(List.of(List.of(0), List.of(1)))
+                .build());
+        when(localRuleService.evaluate(any(), any())).thenAnswer(invocation -> Arrays.asList(null, null));
+        when(pdfService.extractDocument(any(PdfUpload.class))).thenAnswer(invocation -> {
+            PdfUpload upload = invocation.getArgument(0);
+            return ExtractedDocument.builder().fileName(upload.getFileName()).text("text").pageCount(3).build();
+        });
+        when(contextRetrievalService.selectContext(any(), anyString()))
+                .thenAnswer(invocation -> "context for " + invocation.getArgument(1));
+        when(llmService.buildRequest(anyString(), anyString())).thenAnswer(invocation -> LLMRequest.builder()
+                .model("llama-3.3-70b-versatile")
+                .systemPrompt("system")
+                .userPrompt(invocation.getArgument(0) + " / " + invocation.getArgument(1))
+                .temperature(0.0)
+                .build());
+        when(llmService.getAnsweringModels()).thenReturn(List.of("llama-3.3-70b-versatile"));
+        when(verdictCache.buildKey(anyString(), anyString(), anyString(), anyDouble()))
+                .thenAnswer(invocation -> invocation.getArgument(2) + ":" + invocation.getArgument(1));
+
+        @SuppressWarnings("unchecked")
+        ObjectProvider<JdbcTemplate> noDatabase = mock(ObjectProvider.class);
+        String baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1";
+        auditService = new AuditServiceImpl(pdfService, llmService, localRuleService, ruleSetService,
+                contextRetrievalService, verdictCache,
+                new OpenAIBatchProvider("openai", baseUrl, "test-key", null, "24h", new RestTemplate()),
+                new ExecutorServiceAdapter(new SyncTaskExecutor()),
+                noDatabase);
+        auditService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void submitsPollsAndMapsResultsToDocuments() throws Exception {
+        BatchAudit queued = auditService.submit(List.of(upload("a.pdf"), upload("b.pdf")), RULES);
+
+        BatchAudit submitted = auditService.getAudit(queued.getAuditId());
+        assertThat(submitted.getStatus()).isEqualTo(AppConstants.AUDIT_SUBMITTED);
+        assertThat(submitted.getBatchId()).isEqualTo("batch_1");
+        assertThat(submitted.getRequestCount()).isEqualTo(4);
+        assertThat(uploadedFile.get()).contains("\"custom_id\":\"d0-r0\"", "\"custom_id\":\"d1-r1\"",
+                "context for Document has a date");
+        assertThat(MAPPER.readTree(batchRequest.get()).path("input_file_id").asText()).isEqualTo("file_1");
+
+        auditService.pollBatches();
+        assertThat(auditService.getAudit(queued.getAuditId()).getStatus()).isEqualTo(AppConstants.AUDIT_SUBMITTED);
+
+        auditService.pollBatches();
+        BatchAudit completed = auditService.getAudit(queued.getAuditId());
+        assertThat(completed.getStatus()).isEqualTo(AppConstants.AUDIT_COMPLETED);
+
+        List<CheckResponse> responses = auditService.getResults(completed);
+        assertThat(responses).hasSize(2);
+        assertThat(responses.get(0).getFileName()).isEqualTo("a.pdf");
+        assertThat(responses.get(0).getResults()).extracting(RuleResult::getStatus)
+                .containsExactly(AppConstants.STATUS_PASS, AppConstants.STATUS_FAIL);
+        assertThat(responses.get(1).getResults()).extracting(RuleResult::getStatus)
+                .containsExactly(AppConstants.STATUS_PASS, AppConstants.STATUS_ERROR);
+        assertThat(responses.get(1).getResults().get(1).getReasoning()).contains("context length exceeded");
+        verify(verdictCache, times(4)).put(anyString(), any());
+    }
+
+    @Test
+    void skipsBatchForVerdictsCachedByInteractiveChecks() {
+        when(llmService.getCachedVerdict(anyString(), anyString(), anyList())).thenAnswer(invocation ->
+                LLMResponse.builder()
+                        .status(AppConstants.STATUS_PASS)
+                        .evidence("cached")
+                        .reasoning("cached")
+                        .confidence(90)
+                        .build());
+
+        BatchAudit audit = auditService.submit(List.of(upload("a.pdf")), RULES);
+
+        BatchAudit completed = auditService.getAudit(audit.getAuditId());
+        assertThat(completed.getStatus()).isEqualTo(AppConstants.AUDIT_COMPLETED);
+        assertThat(completed.getRequestCount()).isEqualTo(0);
+        assertThat(uploadedFile.get()).isNull();
+        verify(llmService, times(2)).getCachedVerdict(anyString(), anyString(),
+                eq(List.of("llama-3.3-70b-versatile")));
+        verify(verdictCache, never()).put(anyString(), any());
+    }
+
+    private PdfUpload upload(String fileName) {
+        return PdfUpload.builder().fileName(fileName).build();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String route = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath();
+        String response = switch (route) {
+            case "POST /v1/files" -> {
+                uploadedFile.set(body);
+                yield "{\"id\": \"file_1\"}";
+            }
+            case "POST /v1/batches" -> {
+                batchRequest.set(body);
+                yield "{\"id\": \"batch_1\", \"status\": \"validating\"}";
+            }
+            case "GET /v1/batches/batch_1" -> statusPolls.incrementAndGet() == 1
+                    ? "{\"id\": \"batch_1\", \"status\": \"in_progress\"}"
+                    : "{\"id\": \"batch_1\", \"status\": \"completed\", "
+                            + "\"output_file_id\": \"out_1\", \"error_file_id\": \"err_1\"}";
+            case "GET /v1/files/out_1/content" -> String.join("\n",
+                    output("d0-r0", AppConstants.STATUS_PASS),
+                    output("d0-r1", AppConstants.STATUS_FAIL),
+                    output("d1-r0", AppConstants.STATUS_PASS));
+            case "GET /v1/files/err_1/content" -> MAPPER.writeValueAsString(Map.of(
+                    "custom_id", "d1-r1",
+                    "response", Map.of("status_code", 400,
+                            "body", Map.of("error", Map.of("message", "context length exceeded")))));
+            default -> null;
+        };
+
+        if (response == null) {
+            exchange.sendResponseHeaders(404, -1);
+        } else {
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+
+    private static String output(String customId, String status) throws IOException {
+        String verdict = MAPPER.writeValueAsString(Map.of(
+                "status", status,
+                "evidence", "Quoted text",
+                "reasoning", "Because",
+                "confidence", 88));
+        return MAPPER.writeValueAsString(Map.of(
+                "custom_id", customId,
+                "response", Map.of("status_code", 200,
+                        "body", Map.of("choices", List.of(Map.of("message", Map.of("content", verdict)))))));
+    }
+}
@@ -0,0 +1,223 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.config.LlmRoutingProperties;
+import com.niyamr.pdfchecker.exception.LLMBackendUnavailableException;
+import com.niyamr.pdfchecker.exception.LLMServiceException;
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.service.LLMProvider;
+import com.niyamr.pdfchecker.util.PipelineMetrics;
+import com.niyamr.pdfchecker.util.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Routes requests across fake backends to check failover, the bulkhead's
+ * rate limit refund and hedging without any HTTP
+ */
+@Timeout(10)
+class LLMRouterImplTest {
+
+    private final ExecutorService hedgeExecutor = Executors.newCachedThreadPool();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutdown() {
+        hedgeExecutor.shutdownNow();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void failsOverOnServerError() {
+        FakeProvider broken = new FakeProvider("broken", () -> {
+            throw new LLMServiceException("Failed to call LLM API",
+                    new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+        });
+        FakeProvider healthy = new FakeProvider("healthy", () -> answer("healthy"));
+
+        LLMCompletion completion = router(new LlmRoutingProperties(), broken, healthy).complete(request());
+
+        assertThat(completion.getProvider()).isEqualTo("healthy");
+        assertThat(healthy.calls.get()).isEqualTo(1);
+        assertThat(broken.calls.get()).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void doesNotRetryRejectedRequest() {
+        FakeProvider strict = new FakeProvider("strict", () -> {
+            throw new LLMServiceException("Failed to call LLM API",
+                    new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        });
+
+        assertThatThrownBy(() -> router(new LlmRoutingProperties(), strict).complete(request()))
+                .isInstanceOf(LLMServiceException.class);
+        assertThat(strict.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void refundsRateLimitWhenBulkheadIsFull() throws Exception {
+        LlmRoutingProperties properties = new LlmRoutingProperties();
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.getBulkhead().setMaxWaitMs(20);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch entered = new CountDownLatch(1);
+        FakeProvider provider = new FakeProvider("only", new TokenBucketRateLimiter(2, 0), () -> {
+            entered.countDown();
+            await(release);
+            return answer("only");
+        });
+        LLMRouterImpl router = router(properties, provider);
+
+        Future<LLMCompletion> holder = callers.submit(() -> router.complete(request()));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Takes the second request of the minute, then finds the bulkhead full
+        assertThatThrownBy(() -> router.complete(request()))
+                .isInstanceOf(LLMBackendUnavailableException.class);
+        release.countDown();
+        holder.get();
+
+        // Only possible within the deadline if the rejected call gave its request back
+        assertThat(router.complete(request()).getProvider()).isEqualTo("only");
+        assertThat(provider.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void hedgesSlowPrimaryWithSecondBackend() {
+        LlmRoutingProperties properties = new LlmRoutingProperties();
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setInitialDelayMs(50);
+        properties.getHedge().setMinDelayMs(50);
+        CountDownLatch never = new CountDownLatch(1);
+        AtomicInteger interrupted = new AtomicInteger();
+        FakeProvider slow = new FakeProvider("slow", () -> {
+            try {
+                never.await();
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+                Thread.currentThread().interrupt();
+            }
+            throw new LLMServiceException("Interrupted");
+        });
+        FakeProvider fast = new FakeProvider("fast", () -> answer("fast"));
+
+        long start = System.nanoTime();
+        LLMCompletion completion = router(properties, slow, fast).complete(request());
+
+        assertThat(completion.getProvider()).isEqualTo("fast");
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000L);
+        if (slow.calls.get() > 0) {
+            // The slow backend was the primary; losing the race must interrupt it
+            waitFor(() -> interrupted.get() == 1);
+        }
+    }
+
+    private LLMRouterImpl router(LlmRoutingProperties properties, LLMProvider... providers) {
+        LLMRouterImpl router = new LLMRouterImpl(List.of(providers), properties, hedgeExecutor,
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(router, "maxAttempts", 4);
+        ReflectionTestUtils.setField(router, "initialBackoffMs", 10L);
+        ReflectionTestUtils.setField(router, "maxBackoffMs", 50L);
+        ReflectionTestUtils.setField(router, "deadlineMs", 2000L);
+        return router;
+    }
+
+    private LLMRequest request() {
+        return LLMRequest.builder()
+                .model("llama-3.3-70b-versatile")
+                .systemPrompt("system")
+                .userPrompt("document and rule")
+                .maxTokens(100)
+                .estimatedPromptTokens(500)
+                .build();
+    }
+
+    private static LLMCompletion answer(String provider) {
+        return LLMCompletion.builder()
+                .provider(provider)
+                .content("{\"status\": \"PASS\"}")
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LLMServiceException("Interrupted", e);
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) {
+        while (!condition.getAsBoolean()) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static class FakeProvider implements LLMProvider {
+
+        private final String name;
+        private final TokenBucketRateLimiter rateLimiter;
+        private final Supplier<LLMCompletion> behaviour;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        FakeProvider(String name, Supplier<LLMCompletion> behaviour) {
+            this(name, new TokenBucketRateLimiter(0, 0), behaviour);
+        }
+
+        FakeProvider(String name, TokenBucketRateLimiter rateLimiter, Supplier<LLMCompletion> behaviour) {
+            this.name = name;
+            this.rateLimiter = rateLimiter;
+            this.behaviour = behaviour;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getWeight() {
+            return 1;
+        }
+
+        @Override
+        public String modelFor(LLMRequest request) {
+            return request.getModel();
+        }
+
+        @Override
+        public TokenBucketRateLimiter getRateLimiter() {
+            return rateLimiter;
+        }
+
+        @Override
+        public LLMCompletion complete(LLMRequest request) {
+            calls.incrementAndGet();
+            return behaviour.get();
+        }
+    }
+}
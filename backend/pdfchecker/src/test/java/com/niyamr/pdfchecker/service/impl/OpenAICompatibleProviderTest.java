@@ -0,0 +1,174 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.niyamr.pdfchecker.config.LlmRoutingProperties;
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Streams answers from a local SSE stub that never ends on its own, so a
+ * provider that drained instead of aborting would run into the timeout
+ */
+class OpenAICompatibleProviderTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final CountDownLatch clientGone = new CountDownLatch(1);
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        httpClient = HttpClients.createDefault();
+    }
+
+    @AfterEach
+    void stopStub() throws IOException {
+        server.stop(0);
+        httpClient.close();
+    }
+
+    @Test
+    @Timeout(10)
+    void readsUsageAfterVerdictThenAbortsStream() throws Exception {
+        serve(List.of(
+                delta("{\"status\": \"pass\", "),
+                delta("\"evidence\": \"Signed\", \"confidence\": 90}"),
+                "{\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}],\"usage\":null}",
+                "{\"choices\":[],\"usage\":{\"prompt_tokens\":1200,"
+                        + "\"prompt_tokens_details\":{\"cached_tokens\":1024}}}"));
+
+        LLMCompletion completion = provider().complete(request());
+
+        assertThat(completion.getContent())
+                .isEqualTo("{\"status\": \"pass\", \"evidence\": \"Signed\", \"confidence\": 90}");
+        assertThat(completion.getModel()).isEqualTo("llama-3.3-70b-versatile");
+        assertThat(completion.getPromptTokens()).isEqualTo(1200);
+        assertThat(completion.getCachedPromptTokens()).isEqualTo(1024);
+        assertThat(clientGone.await(5, TimeUnit.SECONDS)).isTrue();
+
+        JsonNode sent = MAPPER.readTree(requestBody.get());
+        assertThat(sent.path("stream").asBoolean()).isTrue();
+        assertThat(sent.path("stream_options").path("include_usage").asBoolean()).isTrue();
+        assertThat(sent.has("response_format")).isFalse();
+    }
+
+    @Test
+    @Timeout(10)
+    void cutsRamblingStreamAndFallsBackToEstimate() throws Exception {
+        serve(List.of(
+                delta("Sure! Here is the verdict: "),
+                delta("{\"status\": \"fail\", \"confidence\": 70}")));
+
+        LLMCompletion completion = provider().complete(request());
+
+        assertThat(completion.getContent()).isEqualTo("{\"status\": \"fail\", \"confidence\": 70}");
+        assertThat(completion.getPromptTokens()).isEqualTo(777);
+        assertThat(completion.getCachedPromptTokens()).isNull();
+        assertThat(clientGone.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @Timeout(10)
+    void readsGroqUsageFromFinalChunk() throws Exception {
+        serve(List.of(
+                delta("{\"status\": \"pass\", \"confidence\": 95}"),
+                "{\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}],"
+                        + "\"x_groq\":{\"usage\":{\"prompt_tokens\":640}}}"));
+
+        LLMCompletion completion = provider().complete(request());
+
+        assertThat(completion.getPromptTokens()).isEqualTo(640);
+        assertThat(completion.getCachedPromptTokens()).isNull();
+    }
+
+    private OpenAICompatibleProvider provider() {
+        LlmRoutingProperties.Backend backend = new LlmRoutingProperties.Backend();
+        backend.setName("stub");
+        backend.setApiUrl("http://" + server.getAddress().getHostString() + ":"
+                + server.getAddress().getPort() + "/v1/chat/completions");
+        backend.setApiKey("test-key");
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        return new OpenAICompatibleProvider(backend, restTemplate, true);
+    }
+
+    private LLMRequest request() {
+        return LLMRequest.builder()
+                .model("llama-3.3-70b-versatile")
+                .systemPrompt("system")
+                .userPrompt("document and rule")
+                .maxTokens(200)
+                .temperature(0.0)
+                .estimatedPromptTokens(777)
+                .build();
+    }
+
+    /**
+     * Answer with the given events, then keep sending filler until the
+     * client hangs up
+     */
+    private void serve(List<String> events) {
+        server.createContext("/v1/chat/completions", exchange -> stream(exchange, events));
+    }
+
+    private void stream(HttpExchange exchange, List<String> events) throws IOException {
+        requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream out = exchange.getResponseBody();
+        try {
+            for (String event : events) {
+                write(out, event);
+            }
+            for (int i = 0; i < 2000; i++) {
+                write(out, delta(" and some more text"));
+                TimeUnit.MILLISECONDS.sleep(5);
+            }
+        } catch (IOException e) {
+            clientGone.countDown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void write(OutputStream out, String data) throws IOException {
+        out.write(("data: " + data + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private static String delta(String text) throws IOException {
+        return MAPPER.writeValueAsString(Map.of("choices", List.of(Map.of("delta", Map.of("content", text)))));
+    }
+}
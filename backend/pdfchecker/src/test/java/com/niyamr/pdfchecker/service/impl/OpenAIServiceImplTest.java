@@ -0,0 +1,112 @@
+package com.niyamr.pdfchecker.service.impl;
+
+import com.niyamr.pdfchecker.model.LLMCompletion;
+import com.niyamr.pdfchecker.model.LLMRequest;
+import com.niyamr.pdfchecker.model.LLMResponse;
+import com.niyamr.pdfchecker.model.TokenBudget;
+import com.niyamr.pdfchecker.service.LLMRouter;
+import com.niyamr.pdfchecker.service.TokenBudgetService;
+import com.niyamr.pdfchecker.service.VerdictCacheService;
+import com.niyamr.pdfchecker.util.PipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that verdicts are cached under the model that answered and found
+ * again under any model the router may pick
+ */
+class OpenAIServiceImplTest {
+
+    private static final String DOCUMENT = "Signed by both parties on 1 March 2024.";
+    private static final String RULE = "Document must be signed";
+    private static final String VERDICT = "{\"status\": \"PASS\", \"evidence\": \"Signed by both parties\", "
+            + "\"reasoning\": \"Signatures present\", \"confidence\": 95}";
+
+    private final LLMRouter llmRouter = mock(LLMRouter.class);
+    private final VerdictCacheService verdictCache = mock(VerdictCacheService.class);
+    private final TokenBudgetService tokenBudgetService = mock(TokenBudgetService.class);
+    private final Map<String, LLMResponse> cached = new HashMap<>();
+
+    private OpenAIServiceImpl llmService;
+
+    @BeforeEach
+    void setUp() {
+        when(verdictCache.buildKey(anyString(), anyString(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2) + "|" + invocation.getArgument(1)
+                        + "|" + invocation.getArgument(0));
+        when(verdictCache.getAny(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .map(cached::get)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null));
+        when(tokenBudgetService.plan(anyString(), anyInt())).thenReturn(TokenBudget.builder()
+                .contextWindow(8000).fixedTokens(200).outputTokens(500).documentTokens(7000).build());
+        when(tokenBudgetService.fitToTokens(anyString(), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(llmRouter.modelsFor(any())).thenReturn(List.of("model-a", "model-b"));
+
+        llmService = new OpenAIServiceImpl(llmRouter, verdictCache, tokenBudgetService,
+                new PipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(llmService, "model", "model-a");
+        ReflectionTestUtils.setField(llmService, "maxTokens", 500);
+        ReflectionTestUtils.setField(llmService, "temperature", 0.0);
+        ReflectionTestUtils.setField(llmService, "coalescingEnabled", true);
+        ReflectionTestUtils.setField(llmService, "coalescingMaxWaitMs", 1000L);
+        llmService.init();
+    }
+
+    @Test
+    void cachesVerdictUnderAnsweringModel() {
+        when(llmRouter.complete(any(LLMRequest.class))).thenReturn(LLMCompletion.builder()
+                .provider("backup")
+                .model("model-b")
+                .content(VERDICT)
+                .build());
+
+        LLMResponse response = llmService.checkRule(DOCUMENT, RULE);
+
+        assertThat(response.getStatus()).isEqualTo("PASS");
+        verify(verdictCache).put(key("model-b"), response);
+        verify(verdictCache, never()).put(key("model-a"), response);
+    }
+
+    @Test
+    void servesVerdictCachedByAnyRoutableModel() {
+        LLMResponse stored = LLMResponse.builder().status("FAIL").confidence(80).build();
+        cached.put(key("model-b"), stored);
+
+        assertThat(llmService.checkRule(DOCUMENT, RULE)).isSameAs(stored);
+        assertThat(llmService.checkRules(DOCUMENT, List.of(RULE))).containsExactly(stored);
+        verify(llmRouter, never()).complete(any());
+    }
+
+    @Test
+    void ignoresVerdictsOfModelsNotRouted() {
+        cached.put(key("retired-model"), LLMResponse.builder().status("FAIL").confidence(80).build());
+
+        assertThat(llmService.getCachedVerdict(DOCUMENT, RULE, llmService.getAnsweringModels())).isNull();
+        // One lookup over both routable models, counted as a single miss
+        verify(verdictCache).getAny(List.of(key("model-a"), key("model-b")));
+    }
+
+    private String key(String model) {
+        return model + "|" + RULE + "|" + DOCUMENT;
+    }
+}
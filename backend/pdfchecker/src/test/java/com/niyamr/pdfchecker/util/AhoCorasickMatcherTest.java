@@ -0,0 +1,75 @@
+package com.niyamr.pdfchecker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickMatcherTest {
+
+    @Test
+    void findsOverlappingPhrasesThroughFailureLinks() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("he", "she", "his", "hers"));
+
+        assertThat(matches(matcher, "ushers")).containsExactly("1:1-4", "0:2-4", "3:2-6");
+    }
+
+    @Test
+    void followsFailureLinkAfterPartialMatch() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("abcd", "bce"));
+
+        assertThat(matches(matcher, "xabce")).containsExactly("1:2-5");
+    }
+
+    @Test
+    void ignoresCaseAndWhitespaceRunsWithOriginalOffsets() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("Signed  By"));
+        String text = "It was SIGNED\n\t by the director";
+
+        List<String> found = matches(matcher, text);
+
+        assertThat(found).containsExactly("0:7-18");
+        assertThat(text.substring(7, 18)).isEqualTo("SIGNED\n\t by");
+    }
+
+    @Test
+    void doesNotMatchAcrossMissingWhitespace() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("signed by"));
+
+        assertThat(matches(matcher, "signedby")).isEmpty();
+        assertThat(matches(matcher, "   signed   by   ")).containsExactly("0:3-14");
+    }
+
+    @Test
+    void blankPhrasesNeverMatch() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("", "  ", "a"));
+
+        assertThat(matches(matcher, "a a")).containsExactly("2:0-1", "2:2-3");
+    }
+
+    @Test
+    void stopsWhenHandlerDeclines() {
+        AhoCorasickMatcher matcher = new AhoCorasickMatcher(List.of("a"));
+        List<Integer> ends = new ArrayList<>();
+
+        matcher.search("a a a", (pattern, start, end) -> {
+            ends.add(end);
+            return ends.size() < 2;
+        });
+
+        assertThat(ends).containsExactly(1, 3);
+    }
+
+    @Test
+    void normalizesLikeTheMatcher() {
+        assertThat(AhoCorasickMatcher.normalize("  Net\t30\n\nDays ")).isEqualTo("net 30 days");
+    }
+
+    private List<String> matches(AhoCorasickMatcher matcher, String text) {
+        List<String> found = new ArrayList<>();
+        matcher.search(text, (pattern, start, end) -> found.add(pattern + ":" + start + "-" + end));
+        return found;
+    }
+}
@@ -0,0 +1,133 @@
+package com.niyamr.pdfchecker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private static final long SLOW_MILLIS = 1000;
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        CircuitBreaker breaker = breaker(60_000);
+
+        fail(breaker, 4);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    @Test
+    void opensAtFailureRateThreshold() {
+        CircuitBreaker breaker = breaker(60_000);
+
+        succeed(breaker, 5);
+        fail(breaker, 4);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(breaker, 1);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void opensAtSlowCallRateThreshold() {
+        CircuitBreaker breaker = breaker(60_000);
+
+        succeed(breaker, 5);
+        for (int i = 0; i < 7; i++) {
+            breaker.onSuccess(SLOW_MILLIS);
+        }
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onSuccess(SLOW_MILLIS);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void windowForgetsOldestCalls() {
+        CircuitBreaker breaker = breaker(60_000);
+
+        succeed(breaker, 6);
+        fail(breaker, 4);
+        assertThat(breaker.getFailureRate()).isEqualTo(0.4);
+
+        succeed(breaker, 10);
+
+        assertThat(breaker.getRecordedCalls()).isEqualTo(10);
+        assertThat(breaker.getFailureRate()).isEqualTo(0.0);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void halfOpenTrialsCloseTheBreaker() {
+        CircuitBreaker breaker = openBreaker();
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+
+        breaker.onSuccess(10);
+        breaker.onSuccess(10);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.getRecordedCalls()).isEqualTo(0);
+    }
+
+    @Test
+    void failedOrSlowTrialReopens() {
+        CircuitBreaker failed = openBreaker();
+        assertThat(failed.tryAcquirePermission()).isTrue();
+        failed.onFailure(10);
+        assertThat(failed.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        CircuitBreaker slow = openBreaker();
+        assertThat(slow.tryAcquirePermission()).isTrue();
+        slow.onSuccess(SLOW_MILLIS);
+        assertThat(slow.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void ignoredTrialReturnsItsPermit() {
+        CircuitBreaker breaker = openBreaker();
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    /**
+     * Window of 10, at least 5 calls, opens at 50% failures or 80% slow
+     * calls, two trial calls
+     */
+    private CircuitBreaker breaker(long openWaitMillis) {
+        return new CircuitBreaker(10, 5, 0.5, 0.8, SLOW_MILLIS, openWaitMillis, 2);
+    }
+
+    /**
+     * A breaker that has just opened and whose open wait is already over
+     */
+    private CircuitBreaker openBreaker() {
+        CircuitBreaker breaker = breaker(0);
+        fail(breaker, 5);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private void succeed(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onSuccess(10);
+        }
+    }
+
+    private void fail(CircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onFailure(10);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.niyamr.pdfchecker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonObjectAccumulatorTest {
+
+    @Test
+    void completesAcrossDeltas() {
+        JsonObjectAccumulator accumulator = new JsonObjectAccumulator();
+
+        accumulator.append("{\"sta");
+        accumulator.append("tus\": \"pass\", ");
+        assertThat(accumulator.isComplete()).isFalse();
+        assertThat(accumulator.getText()).isEqualTo("{\"status\": \"pass\", ");
+
+        accumulator.append("\"confidence\": 90}");
+        assertThat(accumulator.isComplete()).isTrue();
+        assertThat(accumulator.getText()).isEqualTo("{\"status\": \"pass\", \"confidence\": 90}");
+    }
+
+    @Test
+    void ignoresBracesAndEscapedQuotesInStrings() {
+        JsonObjectAccumulator accumulator = new JsonObjectAccumulator();
+
+        accumulator.append("{\"evidence\": \"clause {4} says \\\"}\\\" here\"");
+        assertThat(accumulator.isComplete()).isFalse();
+
+        accumulator.append("}");
+        assertThat(accumulator.isComplete()).isTrue();
+    }
+
+    @Test
+    void tracksNestedObjects() {
+        JsonObjectAccumulator accumulator = new JsonObjectAccumulator();
+
+        accumulator.append("{\"verdict\": {\"status\": \"fail\"}");
+        assertThat(accumulator.isComplete()).isFalse();
+
+        accumulator.append(", \"confidence\": 70}");
+        assertThat(accumulator.getText()).isEqualTo("{\"verdict\": {\"status\": \"fail\"}, \"confidence\": 70}");
+    }
+
+    @Test
+    void skipsBracesInLeadingProse() {
+        JsonObjectAccumulator accumulator = new JsonObjectAccumulator();
+
+        accumulator.append("Looking at {the document} and { } first: ");
+        assertThat(accumulator.isComplete()).isFalse();
+
+        accumulator.append("{ \"status\": \"pass\"}");
+        assertThat(accumulator.getText()).isEqualTo("{ \"status\": \"pass\"}");
+    }
+
+    @Test
+    void dropsTextAfterTheObject() {
+        JsonObjectAccumulator accumulator = new JsonObjectAccumulator();
+
+        accumulator.append("{\"status\": \"pass\"} Hope this helps! {\"more\": 1}");
+        accumulator.append(" and more");
+
+        assertThat(accumulator.isComplete()).isTrue();
+        assertThat(accumulator.getText()).isEqualTo("{\"status\": \"pass\"}");
+    }
+}
@@ -0,0 +1,46 @@
+package com.niyamr.pdfchecker.util;
+
+import com.niyamr.pdfchecker.model.LocalRule;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalRuleCompilerTest {
+
+    @Test
+    void compilesPhraseRules() {
+        LocalRule rule = LocalRuleCompiler.compile("The document must contain the phrase \"Net 30\".");
+
+        assertThat(rule.getKind()).isEqualTo(LocalRule.Kind.PHRASE);
+        assertThat(rule.getPhrase()).isEqualTo("Net 30");
+        assertThat(rule.isNegated()).isFalse();
+    }
+
+    @Test
+    void compilesNegatedAndCurlyQuotedPhrases() {
+        LocalRule rule = LocalRuleCompiler.compile("  Contract should NOT mention \u201C penalty \u201D ");
+
+        assertThat(rule.getKind()).isEqualTo(LocalRule.Kind.PHRASE);
+        assertThat(rule.getPhrase()).isEqualTo("penalty");
+        assertThat(rule.isNegated()).isTrue();
+    }
+
+    @Test
+    void compilesDateAndSignatureRules() {
+        assertThat(LocalRuleCompiler.compile("Document must have a date").getKind())
+                .isEqualTo(LocalRule.Kind.DATE);
+        assertThat(LocalRuleCompiler.compile("It must include at least one date.").getKind())
+                .isEqualTo(LocalRule.Kind.DATE);
+        assertThat(LocalRuleCompiler.compile("The agreement shall include a signature block").getKind())
+                .isEqualTo(LocalRule.Kind.SIGNATURE);
+    }
+
+    @Test
+    void leavesOtherRulesToTheLlm() {
+        assertThat(LocalRuleCompiler.compile("The document must mention who is responsible")).isNull();
+        assertThat(LocalRuleCompiler.compile("Must contain \"  \"")).isNull();
+        assertThat(LocalRuleCompiler.compile("Must contain \"Net 30\" or \"Net 60\"")).isNull();
+        assertThat(LocalRuleCompiler.compile("The date must be in 2024")).isNull();
+        assertThat(LocalRuleCompiler.compile(null)).isNull();
+    }
+}
@@ -0,0 +1,57 @@
+package com.niyamr.pdfchecker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RuleFingerprintTest {
+
+    @Test
+    void ignoresFillerWordsAndInflections() {
+        assertThat(similarity("The document must include a termination clause",
+                "Contract should contain termination clauses.")).isEqualTo(1.0);
+    }
+
+    @Test
+    void ratesRewordedRulesAboveUnrelatedOnes() {
+        double reworded = similarity("Must state the governing law", "Should specify the governing law jurisdiction");
+        double unrelated = similarity("Must state the governing law", "Must include a signature block");
+
+        assertThat(reworded).isGreaterThan(0.4);
+        assertThat(reworded).isLessThan(1.0);
+        assertThat(unrelated).isLessThan(0.3);
+    }
+
+    @Test
+    void separatesNegatedRules() {
+        assertThat(similarity("Must mention penalties", "Must not mention penalties")).isEqualTo(0.0);
+        assertThat(similarity("Must be signed", "Must never be signed")).isEqualTo(0.0);
+    }
+
+    @Test
+    void separatesDifferentNumbers() {
+        assertThat(similarity("Payment due within 30 days", "Payment due within 60 days")).isEqualTo(0.0);
+        assertThat(similarity("Payment due within 30 days", "payment is due within 30 days")).isEqualTo(1.0);
+    }
+
+    @Test
+    void comparesQuotedPhrasesVerbatim() {
+        assertThat(similarity("Invoice must contain \"Net 30\"", "Invoice must contain \"Net 60\"")).isEqualTo(0.0);
+        assertThat(similarity("Invoice must contain \"Net  30\"", "Invoices should include \"net 30\"")).isEqualTo(1.0);
+    }
+
+    @Test
+    void separatesConnectives() {
+        assertThat(similarity("Must list fees and taxes", "Must list fees or taxes")).isEqualTo(0.0);
+    }
+
+    @Test
+    void neverMatchesRulesWithoutContentWords() {
+        assertThat(similarity("It must be", "It must be")).isEqualTo(0.0);
+        assertThat(similarity(null, "")).isEqualTo(0.0);
+    }
+
+    private double similarity(String first, String second) {
+        return RuleFingerprint.of(first).similarity(RuleFingerprint.of(second));
+    }
+}
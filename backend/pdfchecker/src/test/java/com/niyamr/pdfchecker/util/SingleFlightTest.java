@@ -0,0 +1,171 @@
+package com.niyamr.pdfchecker.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Timeout(10)
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> flight.execute("key", () -> null, () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "answer";
+                })));
+            }
+            waitFor(() -> flight.getSharedCalls() == 3);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("answer");
+            }
+            assertThat(calls.get()).isEqualTo(1);
+            assertThat(flight.getInFlight()).isEqualTo(0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void winnerRepeatsLookupBeforeCalling() {
+        String value = flight.execute("key", () -> "cached", () -> {
+            calls.incrementAndGet();
+            return "fresh";
+        });
+
+        assertThat(value).isEqualTo("cached");
+        assertThat(calls.get()).isEqualTo(0);
+    }
+
+    @Test
+    void differentKeysDoNotShare() {
+        assertThat(flight.execute("a", () -> null, () -> "a" + calls.incrementAndGet())).isEqualTo("a1");
+        assertThat(flight.execute("b", () -> null, () -> "b" + calls.incrementAndGet())).isEqualTo("b2");
+        assertThat(flight.getSharedCalls()).isEqualTo(0L);
+    }
+
+    @Test
+    void waitersGetTheCallersFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute("key", () -> null, () -> {
+                await(release);
+                throw new IllegalArgumentException("boom");
+            }));
+            waitFor(() -> flight.getInFlight() == 1);
+
+            AtomicReference<Throwable> waiterError = new AtomicReference<>();
+            Thread waiter = new Thread(() -> {
+                try {
+                    flight.execute("key", () -> null, () -> "unused");
+                } catch (RuntimeException e) {
+                    waiterError.set(e);
+                }
+            });
+            waiter.start();
+            waitFor(() -> flight.getSharedCalls() == 1);
+            release.countDown();
+            waiter.join();
+
+            assertThat(waiterError.get()).isNotNull();
+            assertThat(waiterError.get().getMessage()).isEqualTo("boom");
+            assertThatThrownBy(leader::get).hasMessageContaining("boom");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersGiveUpAfterMaxWait() throws Exception {
+        SingleFlight<String, String> shortFlight = new SingleFlight<>(Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> shortFlight.execute("key", () -> null, () -> {
+                await(release);
+                return "late";
+            }));
+            waitFor(() -> shortFlight.getInFlight() == 1);
+
+            assertThatThrownBy(() -> shortFlight.execute("key", () -> null, () -> "unused"))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("still in flight");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void waitersCanBeInterrupted() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> flight.execute("key", () -> null, () -> {
+                await(release);
+                return "late";
+            }));
+            waitFor(() -> flight.getInFlight() == 1);
+
+            AtomicReference<Throwable> waiterError = new AtomicReference<>();
+            AtomicReference<Boolean> interruptFlag = new AtomicReference<>();
+            Thread waiter = new Thread(() -> {
+                try {
+                    flight.execute("key", () -> null, () -> "unused");
+                } catch (IllegalStateException e) {
+                    waiterError.set(e);
+                    interruptFlag.set(Thread.currentThread().isInterrupted());
+                }
+            });
+            waiter.start();
+            waitFor(() -> flight.getSharedCalls() == 1);
+            waiter.interrupt();
+            waiter.join();
+
+            assertThat(waiterError.get()).isNotNull();
+            assertThat(interruptFlag.get()).isTrue();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        while (!condition.getAsBoolean()) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+    }
+}
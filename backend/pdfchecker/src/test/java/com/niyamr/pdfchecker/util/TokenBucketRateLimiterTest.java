@@ -0,0 +1,86 @@
+package com.niyamr.pdfchecker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void zeroLimitsNeverWait() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(limiter.acquire(100_000, deadline(0))).isTrue();
+        }
+    }
+
+    @Test
+    void rejectsWhenRequestBucketCannotRefillBeforeDeadline() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 0);
+
+        assertThat(limiter.acquire(10, deadline(0))).isTrue();
+        assertThat(limiter.acquire(10, deadline(0))).isTrue();
+        assertThat(limiter.acquire(10, deadline(50))).isFalse();
+    }
+
+    @Test
+    void chargesTokensAndCapsOversizedRequests() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0, 1000);
+
+        assertThat(limiter.acquire(800, deadline(0))).isTrue();
+        assertThat(limiter.acquire(300, deadline(50))).isFalse();
+
+        TokenBucketRateLimiter fresh = new TokenBucketRateLimiter(0, 1000);
+        assertThat(fresh.acquire(5000, deadline(0))).isTrue();
+    }
+
+    @Test
+    void refundReturnsRequestAndTokens() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1000);
+
+        assertThat(limiter.acquire(900, deadline(0))).isTrue();
+        assertThat(limiter.acquire(900, deadline(50))).isFalse();
+
+        limiter.refund(900);
+        assertThat(limiter.acquire(900, deadline(0))).isTrue();
+    }
+
+    @Test
+    void refundNeverOverfillsBuckets() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 0);
+
+        limiter.refund(0);
+        limiter.refund(0);
+
+        assertThat(limiter.acquire(0, deadline(0))).isTrue();
+        assertThat(limiter.acquire(0, deadline(50))).isFalse();
+    }
+
+    @Test
+    void exhaustedQuotaPausesUntilReset() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 0);
+
+        limiter.observe(0L, Duration.ofMinutes(1), null, null);
+
+        assertThat(limiter.acquire(10, deadline(50))).isFalse();
+    }
+
+    @Test
+    void pauseHoldsCallersBack() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0, 0);
+        limiter.pause(Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        assertThat(limiter.acquire(10, deadline(5000))).isTrue();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(90L);
+    }
+
+    private long deadline(long millis) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
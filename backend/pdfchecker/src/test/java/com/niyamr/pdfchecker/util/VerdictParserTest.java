@@ -0,0 +1,126 @@
+package com.niyamr.pdfchecker.util;
+
+import com.niyamr.pdfchecker.model.LLMResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerdictParserTest {
+
+    private static final String VERDICT =
+            "{\"status\": \"pass\", \"evidence\": \"Signed on page 2\", \"reasoning\": \"Signature found\", "
+                    + "\"confidence\": 92}";
+
+    @Test
+    void parsesPlainVerdict() {
+        LLMResponse response = VerdictParser.parse(VERDICT);
+
+        assertThat(response.getStatus()).isEqualTo("pass");
+        assertThat(response.getEvidence()).isEqualTo("Signed on page 2");
+        assertThat(response.getReasoning()).isEqualTo("Signature found");
+        assertThat(response.getConfidence()).isEqualTo(92);
+        assertThat(response.getRawResponse()).isEqualTo(VERDICT);
+    }
+
+    @Test
+    void skipsProseFencesAndUnrelatedObjects() {
+        String text = "Looking at {the document} first.\n```json\n{\"note\": {\"x\": 1}}\n"
+                + VERDICT + "\n```\nHope this helps!";
+
+        LLMResponse response = VerdictParser.parse(text);
+
+        assertThat(response.getStatus()).isEqualTo("pass");
+        assertThat(response.getConfidence()).isEqualTo(92);
+    }
+
+    @Test
+    void toleratesTrailingCommaAndRawNewlines() {
+        String text = "{\"status\": \"fail\", \"evidence\": \"line one\nline two\", "
+                + "\"reasoning\": \"Missing\", \"confidence\": 80,}";
+
+        LLMResponse response = VerdictParser.parse(text);
+
+        assertThat(response.getStatus()).isEqualTo("fail");
+        assertThat(response.getEvidence()).isEqualTo("line one\nline two");
+    }
+
+    @Test
+    void scalesFractionalConfidenceToPercent() {
+        assertThat(confidenceOf("0.85")).isEqualTo(85);
+        assertThat(confidenceOf("1.0")).isEqualTo(100);
+        assertThat(confidenceOf("\"0.4\"")).isEqualTo(40);
+    }
+
+    @Test
+    void keepsIntegerConfidenceAsPercent() {
+        assertThat(confidenceOf("1")).isEqualTo(1);
+        assertThat(confidenceOf("\"1\"")).isEqualTo(1);
+    }
+
+    @Test
+    void keepsPercentConfidence() {
+        assertThat(confidenceOf("0")).isEqualTo(0);
+        assertThat(confidenceOf("75.6")).isEqualTo(76);
+        assertThat(confidenceOf("\"90%\"")).isEqualTo(90);
+        assertThat(confidenceOf("\"0.5%\"")).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsIncompleteVerdicts() {
+        assertThat(VerdictParser.parse("{\"status\": \"pass\", \"confidence\": 90}")).isNull();
+        assertThat(VerdictParser.parse("{\"status\": \"pass\", \"evidence\": \"e\", \"reasoning\": \"r\", "
+                + "\"confidence\": 140}")).isNull();
+        assertThat(VerdictParser.parse("no json here")).isNull();
+        assertThat(VerdictParser.parse(null)).isNull();
+    }
+
+    @Test
+    void parsesBatchByRuleNumber() {
+        String text = "{\"results\": ["
+                + "{\"rule\": 2, \"status\": \"fail\", \"evidence\": \"e2\", \"reasoning\": \"r2\", \"confidence\": 60},"
+                + "{\"rule\": 1, \"status\": \"pass\", \"evidence\": \"e1\", \"reasoning\": \"r1\", \"confidence\": 0.9}"
+                + "]}";
+        List<LLMResponse> responses = slots(2);
+
+        assertThat(VerdictParser.parseBatch(text, responses)).isTrue();
+        assertThat(responses.get(0).getStatus()).isEqualTo("pass");
+        assertThat(responses.get(0).getConfidence()).isEqualTo(90);
+        assertThat(responses.get(1).getStatus()).isEqualTo("fail");
+        assertThat(responses.get(1).getRawResponse()).startsWith("{\"rule\": 2");
+    }
+
+    @Test
+    void leavesInvalidBatchEntriesEmpty() {
+        String text = "Here you go: ["
+                + "{\"status\": \"pass\", \"evidence\": \"e1\", \"reasoning\": \"r1\", \"confidence\": 70},"
+                + "{\"status\": \"pass\"},"
+                + "{\"status\": \"fail\", \"evidence\": \"e3\", \"reasoning\": \"r3\", \"confidence\": 65}"
+                + "]";
+        List<LLMResponse> responses = slots(3);
+
+        assertThat(VerdictParser.parseBatch(text, responses)).isTrue();
+        assertThat(responses.get(0).getStatus()).isEqualTo("pass");
+        assertThat(responses.get(1)).isNull();
+        assertThat(responses.get(2).getStatus()).isEqualTo("fail");
+    }
+
+    @Test
+    void reportsMissingResultsArray() {
+        assertThat(VerdictParser.parseBatch(VERDICT, slots(1))).isFalse();
+        assertThat(VerdictParser.parseBatch("nothing", slots(1))).isFalse();
+    }
+
+    private Integer confidenceOf(String value) {
+        LLMResponse response = VerdictParser.parse(
+                "{\"status\": \"pass\", \"evidence\": \"e\", \"reasoning\": \"r\", \"confidence\": " + value + "}");
+        return response == null ? null : response.getConfidence();
+    }
+
+    private List<LLMResponse> slots(int size) {
+        return new ArrayList<>(Collections.nCopies(size, null));
+    }
+}